@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Strong entity tags derived from the version of a note or tag.
+ * <p>
+ * Adapted from the main application's {@code EntityTags}. Tags have no note count here,
+ * so their entity tags are derived from their version alone.
+ */
+final class EntityTags {
+
+	private EntityTags() {
+	}
+
+	static String of(long version) {
+		return "\"" + version + "\"";
+	}
+
+	/**
+	 * Checks an {@code If-Match} request header against the current version of a
+	 * resource, throwing {@link PreconditionFailedException} if none of its entity tags
+	 * match. A missing header always matches.
+	 */
+	static void checkIfMatch(String ifMatch, long version) {
+		if (!StringUtils.hasText(ifMatch)) {
+			return;
+		}
+		String eTag = of(version);
+		for (String candidate: StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*") || trimmed.equals(eTag)) {
+				return;
+			}
+		}
+		throw new PreconditionFailedException();
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/")
+class IndexController {
+
+	@RequestMapping(method = RequestMethod.GET)
+	Mono<RepresentationModel<?>> index(ServerWebExchange exchange) {
+		return Flux.concat(
+				linkTo(methodOn(NotesController.class).all(null, null, null, null), exchange).withRel("notes").toMono(),
+				linkTo(methodOn(TagsController.class).all(null, null, null, null), exchange).withRel("tags").toMono())
+			.collectList()
+			.map((links) -> {
+				RepresentationModel<?> index = new RepresentationModel<>();
+				index.add(links);
+				return index;
+			});
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams every note as newline-delimited JSON. Notes and their tag ids are read with a
+ * single query whose rows are fetched as the client consumes the response, so a slow
+ * client slows the query down rather than causing notes to be buffered in memory.
+ */
+@RestController
+@RequestMapping("/notes")
+class NoteExportController {
+
+	private final DatabaseClient databaseClient;
+
+	NoteExportController(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+
+	@RequestMapping(value = "/export", method = RequestMethod.GET, produces = MediaType.APPLICATION_NDJSON_VALUE)
+	Flux<ExportedNote> export() {
+		return this.databaseClient
+			.sql("select n.id, n.title, n.body, nt.tags_id from note n "
+					+ "left join note_tags nt on nt.notes_id = n.id order by n.id")
+			.map((row, metadata) -> new NoteTagRow(row.get("id", Long.class), row.get("title", String.class),
+					row.get("body", String.class), row.get("tags_id", Long.class)))
+			.all()
+			.bufferUntilChanged(NoteTagRow::getNoteId)
+			.map(ExportedNote::new);
+	}
+
+	private static final class NoteTagRow {
+
+		private final long noteId;
+
+		private final String title;
+
+		private final String body;
+
+		private final Long tagId;
+
+		private NoteTagRow(long noteId, String title, String body, Long tagId) {
+			this.noteId = noteId;
+			this.title = title;
+			this.body = body;
+			this.tagId = tagId;
+		}
+
+		private long getNoteId() {
+			return this.noteId;
+		}
+
+	}
+
+	static class ExportedNote {
+
+		private final long id;
+
+		private final String title;
+
+		private final String body;
+
+		private final List<Long> tags;
+
+		ExportedNote(List<NoteTagRow> rows) {
+			NoteTagRow first = rows.get(0);
+			this.id = first.noteId;
+			this.title = first.title;
+			this.body = first.body;
+			this.tags = new ArrayList<>(rows.size());
+			for (NoteTagRow row: rows) {
+				if (row.tagId != null) {
+					this.tags.add(row.tagId);
+				}
+			}
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getTitle() {
+			return this.title;
+		}
+
+		public String getBody() {
+			return this.body;
+		}
+
+		public List<Long> getTags() {
+			return this.tags;
+		}
+
+	}
+
+}
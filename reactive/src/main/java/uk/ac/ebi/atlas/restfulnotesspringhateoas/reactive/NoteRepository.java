@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+
+interface NoteRepository extends ReactiveCrudRepository<Note, Long> {
+
+	@Query("select * from note where id > :after order by id limit :limit")
+	Flux<Note> findAfter(@Param("after") long after, @Param("limit") int limit);
+
+	@Query("select * from note where id < :before order by id desc limit :limit")
+	Flux<Note> findBefore(@Param("before") long before, @Param("limit") int limit);
+
+	@Query("select n.* from note n join note_tags nt on nt.notes_id = n.id where nt.tags_id = :tagId order by n.id")
+	Flux<Note> findByTagId(@Param("tagId") long tagId);
+
+}
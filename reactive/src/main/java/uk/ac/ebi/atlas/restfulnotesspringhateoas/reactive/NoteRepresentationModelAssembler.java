@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import org.springframework.hateoas.server.reactive.ReactiveRepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+class NoteRepresentationModelAssembler
+		implements ReactiveRepresentationModelAssembler<Note, NoteRepresentationModelAssembler.NoteModel> {
+
+	@Override
+	public Mono<NoteModel> toModel(Note entity, ServerWebExchange exchange) {
+		NoteModel noteModel = new NoteModel(entity);
+		return Flux.concat(
+				linkTo(methodOn(NotesController.class).note(entity.getId(), null), exchange).withSelfRel().toMono(),
+				linkTo(methodOn(NotesController.class).noteTags(entity.getId(), null), exchange)
+					.withRel("note-tags").toMono())
+			.collectList()
+			.map(noteModel::add);
+	}
+
+	/**
+	 * Assembles the models one after another so that the collection keeps the order of
+	 * the entities.
+	 */
+	@Override
+	public Mono<CollectionModel<NoteModel>> toCollectionModel(Flux<? extends Note> entities,
+			ServerWebExchange exchange) {
+		return entities.concatMap((entity) -> toModel(entity, exchange)).collectList().map(CollectionModel::of);
+	}
+
+	@Relation(collectionRelation = "notes", itemRelation = "note")
+	static class NoteModel extends RepresentationModel<NoteModel> {
+
+		private final String title;
+
+		private final String body;
+
+		NoteModel(Note note) {
+			this.title = note.getTitle();
+			this.body = note.getBody();
+		}
+
+		public String getTitle() {
+			return this.title;
+		}
+
+		public String getBody() {
+			return this.body;
+		}
+
+	}
+
+}
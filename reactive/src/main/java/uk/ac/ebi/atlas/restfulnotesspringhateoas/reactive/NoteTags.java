@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the associations between notes and tags, which R2DBC does not map, to the
+ * {@code note_tags} table.
+ */
+@Component
+class NoteTags {
+
+	private final DatabaseClient databaseClient;
+
+	NoteTags(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+
+	/**
+	 * Replaces the tags of a note with the given tags, inserting the new associations
+	 * in a single batch.
+	 */
+	Mono<Void> replace(long noteId, List<Long> tagIds) {
+		return deleteByNoteId(noteId).then(insert(noteId, tagIds));
+	}
+
+	Mono<Void> deleteByNoteId(long noteId) {
+		return this.databaseClient.sql("delete from note_tags where notes_id = :noteId")
+			.bind("noteId", noteId)
+			.then();
+	}
+
+	Mono<Void> deleteByTagId(long tagId) {
+		return this.databaseClient.sql("delete from note_tags where tags_id = :tagId")
+			.bind("tagId", tagId)
+			.then();
+	}
+
+	private Mono<Void> insert(long noteId, List<Long> tagIds) {
+		if (tagIds.isEmpty()) {
+			return Mono.empty();
+		}
+		return this.databaseClient.inConnectionMany((connection) -> {
+			Statement statement = connection.createStatement("insert into note_tags (notes_id, tags_id) values ($1, $2)");
+			for (int i = 0; i < tagIds.size(); i++) {
+				if (i > 0) {
+					statement.add();
+				}
+				statement.bind(0, noteId).bind(1, tagIds.get(i));
+			}
+			return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+		}).then();
+	}
+
+}
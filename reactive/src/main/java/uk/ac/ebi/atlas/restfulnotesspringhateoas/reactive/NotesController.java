@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive.NoteRepresentationModelAssembler.NoteModel;
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive.TagRepresentationModelAssembler.TagModel;
+
+@RestController
+@RequestMapping("/notes")
+class NotesController {
+
+	private final NoteRepository noteRepository;
+
+	private final TagRepository tagRepository;
+
+	private final NoteTags noteTags;
+
+	private final TagResolver tagResolver;
+
+	private final NoteRepresentationModelAssembler noteAssembler;
+
+	private final TagRepresentationModelAssembler tagAssembler;
+
+	private final TransactionalOperator transactionalOperator;
+
+	private final RestNotesProperties.Paging paging;
+
+	NotesController(NoteRepository noteRepository, TagRepository tagRepository, NoteTags noteTags,
+			TagResolver tagResolver, NoteRepresentationModelAssembler noteAssembler,
+			TagRepresentationModelAssembler tagAssembler, TransactionalOperator transactionalOperator,
+			RestNotesProperties properties) {
+		this.noteRepository = noteRepository;
+		this.tagRepository = tagRepository;
+		this.noteTags = noteTags;
+		this.tagResolver = tagResolver;
+		this.noteAssembler = noteAssembler;
+		this.tagAssembler = tagAssembler;
+		this.transactionalOperator = transactionalOperator;
+		this.paging = properties.getPaging();
+	}
+
+	@RequestMapping(method = RequestMethod.GET)
+	Mono<CollectionModel<NoteModel>> all(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "before", required = false) Long before,
+			@RequestParam(name = "size", required = false) Integer size, ServerWebExchange exchange) {
+		int pageSize = this.paging.pageSize(size);
+		Mono<KeysetSlice<Note>> slices = (before != null)
+				? this.noteRepository.findBefore(before, pageSize + 1).collectList()
+					.map((notes) -> KeysetSlice.before(notes, pageSize))
+				: this.noteRepository.findAfter((after != null) ? after : Long.MIN_VALUE, pageSize + 1).collectList()
+					.map((notes) -> KeysetSlice.after(notes, pageSize, after != null));
+
+		return slices.flatMap((slice) -> {
+			List<Mono<Link>> links = new ArrayList<>();
+			links.add(linkTo(methodOn(NotesController.class).all(after, before, size, null), exchange)
+				.withSelfRel().toMono());
+			if (slice.hasNext()) {
+				links.add(linkTo(methodOn(NotesController.class).all(slice.getLast().getId(), null, size, null),
+						exchange).withRel(IanaLinkRelations.NEXT).toMono());
+			}
+			if (slice.hasPrevious()) {
+				links.add(linkTo(methodOn(NotesController.class).all(null, slice.getFirst().getId(), size, null),
+						exchange).withRel(IanaLinkRelations.PREV).toMono());
+			}
+			return this.noteAssembler.toCollectionModel(Flux.fromIterable(slice.getContent()), exchange)
+				.zipWith(Flux.concat(links).collectList(), (notes, pageLinks) -> notes.add(pageLinks));
+		});
+	}
+
+	@RequestMapping(method = RequestMethod.POST)
+	Mono<ResponseEntity<Void>> create(@RequestBody NoteInput noteInput, ServerWebExchange exchange) {
+		Note note = new Note();
+		note.setTitle(noteInput.getTitle());
+		note.setBody(noteInput.getBody());
+
+		return this.tagResolver.getTagIds(noteInput.getTagUris())
+			.flatMap((tagIds) -> this.noteRepository.save(note)
+				.flatMap((saved) -> this.noteTags.replace(saved.getId(), tagIds).thenReturn(saved)))
+			.as(this.transactionalOperator::transactional)
+			.flatMap((saved) -> linkTo(methodOn(NotesController.class).note(saved.getId(), null), exchange)
+				.withSelfRel().toMono())
+			.map((location) -> ResponseEntity.created(location.toUri()).build());
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
+	Mono<Void> delete(@PathVariable("id") long id) {
+		return this.noteTags.deleteByNoteId(id)
+			.then(this.noteRepository.deleteById(id))
+			.as(this.transactionalOperator::transactional);
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
+	Mono<ResponseEntity<NoteModel>> note(@PathVariable("id") long id, ServerWebExchange exchange) {
+		return findNoteById(id).flatMap((note) -> {
+			String eTag = EntityTags.of(note.getVersion());
+			if (exchange.checkNotModified(eTag)) {
+				return Mono.empty();
+			}
+			return this.noteAssembler.toModel(note, exchange)
+				.map((model) -> ResponseEntity.ok().eTag(eTag).body(model));
+		});
+	}
+
+	@RequestMapping(value = "/{id}/tags", method = RequestMethod.GET)
+	Mono<CollectionModel<TagModel>> noteTags(@PathVariable("id") long id, ServerWebExchange exchange) {
+		return findNoteById(id)
+			.flatMap((note) -> this.tagAssembler.toCollectionModel(this.tagRepository.findByNoteId(id), exchange));
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.PATCH)
+	Mono<ResponseEntity<Void>> updateNote(@PathVariable("id") long id, @RequestBody NotePatchInput noteInput,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		Mono<List<Long>> tagIds = (noteInput.getTagUris() != null)
+				? this.tagResolver.getTagIds(noteInput.getTagUris()) : Mono.just(List.of());
+		return findNoteById(id)
+			.zipWith(tagIds)
+			.flatMap((noteAndTagIds) -> {
+				Note note = noteAndTagIds.getT1();
+				EntityTags.checkIfMatch(ifMatch, note.getVersion());
+				if (noteInput.getTitle() != null) {
+					note.setTitle(noteInput.getTitle());
+				}
+				if (noteInput.getBody() != null) {
+					note.setBody(noteInput.getBody());
+				}
+				Mono<Note> saved = this.noteRepository.save(note);
+				return (noteInput.getTagUris() != null)
+						? saved.flatMap((updated) -> this.noteTags.replace(id, noteAndTagIds.getT2()).thenReturn(updated))
+						: saved;
+			})
+			.as(this.transactionalOperator::transactional)
+			.map((note) -> ResponseEntity.noContent().eTag(EntityTags.of(note.getVersion())).build());
+	}
+
+	private Mono<Note> findNoteById(long id) {
+		return this.noteRepository.findById(id).switchIfEmpty(Mono.error(ResourceDoesNotExistException::new));
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Translates the exceptions raised while handling a request into the same responses as
+ * the servlet variant of the service. The {@link ResponseStatusException}s produced
+ * here are rendered by Spring Boot's error handling, which produces the same error body.
+ */
+@Component
+class RestNotesExceptionFilter implements WebFilter {
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		return chain.filter(exchange).onErrorMap((ex) -> translate(ex, exchange));
+	}
+
+	private static Throwable translate(Throwable ex, ServerWebExchange exchange) {
+		String path = exchange.getRequest().getPath().value();
+		if (ex instanceof IllegalArgumentException) {
+			return new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+		}
+		if (ex instanceof ResourceDoesNotExistException) {
+			return new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"The resource '" + path + "' does not exist", ex);
+		}
+		if (ex instanceof PreconditionFailedException || ex instanceof OptimisticLockingFailureException) {
+			return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+					"The resource '" + path + "' has been modified", ex);
+		}
+		return ex;
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("restnotes")
+class RestNotesProperties {
+
+	private final Paging paging = new Paging();
+
+	public Paging getPaging() {
+		return this.paging;
+	}
+
+	static class Paging {
+
+		/**
+		 * Number of items returned by a collection resource when no size is requested.
+		 */
+		private int defaultSize = 20;
+
+		/**
+		 * Largest number of items a client may request in a single page.
+		 */
+		private int maxSize = 100;
+
+		public int getDefaultSize() {
+			return this.defaultSize;
+		}
+
+		public void setDefaultSize(int defaultSize) {
+			this.defaultSize = defaultSize;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		int pageSize(Integer requested) {
+			if (requested == null) {
+				return Math.min(this.defaultSize, this.maxSize);
+			}
+			if (requested < 1) {
+				throw new IllegalArgumentException("The page size '" + requested + "' is invalid");
+			}
+			return Math.min(requested, this.maxSize);
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import reactor.core.publisher.Flux;
+
+interface TagRepository extends ReactiveCrudRepository<Tag, Long> {
+
+	@Query("select * from tag where id > :after order by id limit :limit")
+	Flux<Tag> findAfter(@Param("after") long after, @Param("limit") int limit);
+
+	@Query("select * from tag where id < :before order by id desc limit :limit")
+	Flux<Tag> findBefore(@Param("before") long before, @Param("limit") int limit);
+
+	@Query("select t.* from tag t join note_tags nt on nt.tags_id = t.id where nt.notes_id = :noteId")
+	Flux<Tag> findByNoteId(@Param("noteId") long noteId);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import org.springframework.hateoas.server.reactive.ReactiveRepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+class TagRepresentationModelAssembler
+		implements ReactiveRepresentationModelAssembler<Tag, TagRepresentationModelAssembler.TagModel> {
+
+	@Override
+	public Mono<TagModel> toModel(Tag entity, ServerWebExchange exchange) {
+		TagModel tagModel = new TagModel(entity);
+		return Flux.concat(
+				linkTo(methodOn(TagsController.class).tag(entity.getId(), null), exchange).withSelfRel().toMono(),
+				linkTo(methodOn(TagsController.class).tagNotes(entity.getId(), null), exchange)
+					.withRel("tagged-notes").toMono())
+			.collectList()
+			.map(tagModel::add);
+	}
+
+	/**
+	 * Assembles the models one after another so that the collection keeps the order of
+	 * the entities.
+	 */
+	@Override
+	public Mono<CollectionModel<TagModel>> toCollectionModel(Flux<? extends Tag> entities,
+			ServerWebExchange exchange) {
+		return entities.concatMap((entity) -> toModel(entity, exchange)).collectList().map(CollectionModel::of);
+	}
+
+	@Relation(collectionRelation = "tags", itemRelation = "tag")
+	static class TagModel extends RepresentationModel<TagModel> {
+
+		private final String name;
+
+		TagModel(Tag tag) {
+			this.name = tag.getName();
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+	}
+
+}
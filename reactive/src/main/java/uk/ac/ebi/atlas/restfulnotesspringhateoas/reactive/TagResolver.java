@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriTemplate;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the tag URIs of a note input to tag ids. Unlike the main application's
+ * {@code TagResolver}, tags can only be referred to by URI.
+ */
+@Component
+class TagResolver {
+
+	private static final UriTemplate TAG_URI_TEMPLATE = new UriTemplate("/tags/{id}");
+
+	private final TagRepository tagRepository;
+
+	TagResolver(TagRepository tagRepository) {
+		this.tagRepository = tagRepository;
+	}
+
+	/**
+	 * Resolves tag URIs to the ids of the tags they identify, failing with
+	 * {@link IllegalArgumentException} if any of the tags do not exist.
+	 */
+	Mono<List<Long>> getTagIds(List<URI> tagLocations) {
+		Set<Long> tagIds = new LinkedHashSet<>();
+		for (URI tagLocation: tagLocations) {
+			tagIds.add(extractTagId(tagLocation));
+		}
+		if (tagIds.isEmpty()) {
+			return Mono.just(new ArrayList<>());
+		}
+		return this.tagRepository.findAllById(tagIds).map(Tag::getId).collect(Collectors.toSet())
+			.map((existing) -> {
+				Set<URI> missing = new LinkedHashSet<>();
+				for (URI tagLocation: tagLocations) {
+					if (!existing.contains(extractTagId(tagLocation))) {
+						missing.add(tagLocation);
+					}
+				}
+				if (missing.size() == 1) {
+					throw new IllegalArgumentException("The tag '" + missing.iterator().next()
+							+ "' does not exist");
+				}
+				if (!missing.isEmpty()) {
+					throw new IllegalArgumentException("The tags " + missing.stream()
+							.map((tagLocation) -> "'" + tagLocation + "'")
+							.collect(Collectors.joining(", ")) + " do not exist");
+				}
+				return new ArrayList<>(tagIds);
+			});
+	}
+
+	static long extractTagId(URI tagLocation) {
+		try {
+			String idString = TAG_URI_TEMPLATE.match(tagLocation.toASCIIString()).get(
+					"id");
+			return Long.valueOf(idString);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException("The tag '" + tagLocation + "' is invalid");
+		}
+	}
+
+}
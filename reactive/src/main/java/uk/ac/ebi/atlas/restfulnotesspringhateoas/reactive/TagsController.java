@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive.NoteRepresentationModelAssembler.NoteModel;
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive.TagRepresentationModelAssembler.TagModel;
+
+@RestController
+@RequestMapping("/tags")
+class TagsController {
+
+	private final TagRepository repository;
+
+	private final NoteRepository noteRepository;
+
+	private final NoteTags noteTags;
+
+	private final TagRepresentationModelAssembler tagAssembler;
+
+	private final NoteRepresentationModelAssembler noteAssembler;
+
+	private final TransactionalOperator transactionalOperator;
+
+	private final RestNotesProperties.Paging paging;
+
+	TagsController(TagRepository repository, NoteRepository noteRepository, NoteTags noteTags,
+			TagRepresentationModelAssembler tagAssembler, NoteRepresentationModelAssembler noteAssembler,
+			TransactionalOperator transactionalOperator, RestNotesProperties properties) {
+		this.repository = repository;
+		this.noteRepository = noteRepository;
+		this.noteTags = noteTags;
+		this.tagAssembler = tagAssembler;
+		this.noteAssembler = noteAssembler;
+		this.transactionalOperator = transactionalOperator;
+		this.paging = properties.getPaging();
+	}
+
+	@RequestMapping(method = RequestMethod.GET)
+	Mono<CollectionModel<TagModel>> all(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "before", required = false) Long before,
+			@RequestParam(name = "size", required = false) Integer size, ServerWebExchange exchange) {
+		int pageSize = this.paging.pageSize(size);
+		Mono<KeysetSlice<Tag>> slices = (before != null)
+				? this.repository.findBefore(before, pageSize + 1).collectList()
+					.map((tags) -> KeysetSlice.before(tags, pageSize))
+				: this.repository.findAfter((after != null) ? after : Long.MIN_VALUE, pageSize + 1).collectList()
+					.map((tags) -> KeysetSlice.after(tags, pageSize, after != null));
+
+		return slices.flatMap((slice) -> {
+			List<Mono<Link>> links = new ArrayList<>();
+			links.add(linkTo(methodOn(TagsController.class).all(after, before, size, null), exchange)
+				.withSelfRel().toMono());
+			if (slice.hasNext()) {
+				links.add(linkTo(methodOn(TagsController.class).all(slice.getLast().getId(), null, size, null),
+						exchange).withRel(IanaLinkRelations.NEXT).toMono());
+			}
+			if (slice.hasPrevious()) {
+				links.add(linkTo(methodOn(TagsController.class).all(null, slice.getFirst().getId(), size, null),
+						exchange).withRel(IanaLinkRelations.PREV).toMono());
+			}
+			return this.tagAssembler.toCollectionModel(Flux.fromIterable(slice.getContent()), exchange)
+				.zipWith(Flux.concat(links).collectList(), (tags, pageLinks) -> tags.add(pageLinks));
+		});
+	}
+
+	@RequestMapping(method = RequestMethod.POST)
+	Mono<ResponseEntity<Void>> create(@RequestBody TagInput tagInput, ServerWebExchange exchange) {
+		Tag tag = new Tag();
+		tag.setName(tagInput.getName());
+
+		return this.repository.save(tag)
+			.flatMap((saved) -> linkTo(methodOn(TagsController.class).tag(saved.getId(), null), exchange)
+				.withSelfRel().toMono())
+			.map((location) -> ResponseEntity.created(location.toUri()).build());
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
+	Mono<Void> delete(@PathVariable("id") long id) {
+		return this.noteTags.deleteByTagId(id)
+			.then(this.repository.deleteById(id))
+			.as(this.transactionalOperator::transactional);
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
+	Mono<ResponseEntity<TagModel>> tag(@PathVariable("id") long id, ServerWebExchange exchange) {
+		return findTagById(id).flatMap((tag) -> {
+			String eTag = EntityTags.of(tag.getVersion());
+			if (exchange.checkNotModified(eTag)) {
+				return Mono.empty();
+			}
+			return this.tagAssembler.toModel(tag, exchange)
+				.map((model) -> ResponseEntity.ok().eTag(eTag).body(model));
+		});
+	}
+
+	@RequestMapping(value = "/{id}/notes", method = RequestMethod.GET)
+	Mono<CollectionModel<NoteModel>> tagNotes(@PathVariable("id") long id, ServerWebExchange exchange) {
+		return findTagById(id)
+			.flatMap((tag) -> this.noteAssembler.toCollectionModel(this.noteRepository.findByTagId(id), exchange));
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.PATCH)
+	Mono<ResponseEntity<Void>> updateTag(@PathVariable("id") long id, @RequestBody TagPatchInput tagInput,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return findTagById(id)
+			.flatMap((tag) -> {
+				EntityTags.checkIfMatch(ifMatch, tag.getVersion());
+				if (tagInput.getName() != null) {
+					tag.setName(tagInput.getName());
+				}
+				return this.repository.save(tag);
+			})
+			.map((tag) -> ResponseEntity.noContent().eTag(EntityTags.of(tag.getVersion())).build());
+	}
+
+	private Mono<Tag> findTagById(long id) {
+		return this.repository.findById(id).switchIfEmpty(Mono.error(ResourceDoesNotExistException::new));
+	}
+
+}
@@ -0,0 +1,21 @@
+create table if not exists note (
+	id bigint generated by default as identity primary key,
+	version bigint not null,
+	title varchar(255),
+	body varchar(255)
+);
+
+create table if not exists tag (
+	id bigint generated by default as identity primary key,
+	version bigint not null,
+	name varchar(255)
+);
+
+create table if not exists note_tags (
+	notes_id bigint not null references note (id),
+	tags_id bigint not null references tag (id)
+);
+
+create index if not exists note_tags_notes_id on note_tags (notes_id);
+
+create index if not exists note_tags_tags_id on note_tags (tags_id);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveRestNotesTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void indexLinksToNotesAndTags() {
+		this.webTestClient.get().uri("/").accept(MediaTypes.HAL_JSON).exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("_links.notes.href").value(endsWith("/notes"))
+			.jsonPath("_links.tags.href").value(endsWith("/tags"));
+	}
+
+	@Test
+	void noteCanBeCreatedWithTagsAndRetrieved() {
+		URI tagLocation = create("/tags", Map.of("name", "REST"));
+		URI noteLocation = create("/notes", Map.of("title", "REST maturity model",
+				"body", "https://martinfowler.com/articles/richardsonMaturityModel.html",
+				"tags", List.of(tagLocation)));
+
+		String eTag = this.webTestClient.get().uri(noteLocation).accept(MediaTypes.HAL_JSON).exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("title").isEqualTo("REST maturity model")
+			.jsonPath("_links.self.href").isEqualTo(noteLocation.toString())
+			.jsonPath("_links.note-tags.href").isEqualTo(noteLocation + "/tags")
+			.returnResult().getResponseHeaders().getETag();
+
+		this.webTestClient.get().uri(noteLocation).accept(MediaTypes.HAL_JSON).ifNoneMatch(eTag).exchange()
+			.expectStatus().isNotModified();
+
+		this.webTestClient.get().uri(noteLocation + "/tags").accept(MediaTypes.HAL_JSON).exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("_embedded.tags[0].name").isEqualTo("REST")
+			.jsonPath("_embedded.tags[0]._links.self.href").isEqualTo(tagLocation.toString());
+	}
+
+	@Test
+	void notesArePagedWithLinks() {
+		for (int i = 0; i < 3; i++) {
+			create("/notes", Map.of("title", "Note " + i));
+		}
+
+		String page = new String(this.webTestClient.get().uri("/notes?size=2").accept(MediaTypes.HAL_JSON).exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("_embedded.notes.length()").isEqualTo(2)
+			.jsonPath("_links.next.href").exists()
+			.returnResult().getResponseBody());
+		assertThat(page).contains("after=");
+	}
+
+	@Test
+	void staleIfMatchIsRejected() {
+		URI tagLocation = create("/tags", Map.of("name", "HTTP"));
+
+		this.webTestClient.patch().uri(tagLocation).contentType(MediaTypes.HAL_JSON)
+			.header(HttpHeaders.IF_MATCH, "\"42\"")
+			.bodyValue(Map.of("name", "HTTP/2"))
+			.exchange()
+			.expectStatus().isEqualTo(412);
+	}
+
+	@Test
+	void unknownNoteIsNotFound() {
+		this.webTestClient.get().uri("/notes/{id}", Long.MAX_VALUE).accept(MediaTypes.HAL_JSON).exchange()
+			.expectStatus().isNotFound();
+	}
+
+	@Test
+	void notesAreExportedAsNewlineDelimitedJson() {
+		create("/notes", Map.of("title", "Exported"));
+
+		this.webTestClient.get().uri("/notes/export").accept(MediaType.APPLICATION_NDJSON).exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+			.expectBody(String.class)
+			.value((body) -> assertThat(body).contains("\"title\":\"Exported\""));
+	}
+
+	private URI create(String path, Map<String, ?> body) {
+		URI location = this.webTestClient.post().uri(path).contentType(MediaTypes.HAL_JSON).bodyValue(body).exchange()
+			.expectStatus().isCreated()
+			.returnResult(Void.class).getResponseHeaders().getLocation();
+		assertThat(location).isNotNull();
+		return location;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.AnnotationLinkRelationProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteRepresentationModelAssembler.NoteModel;
+
+/**
+ * Measures HAL serialization of note collections of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class HalSerializationBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	private int size;
+
+	private ObjectMapper objectMapper;
+
+	private CollectionModel<NoteModel> notes;
+
+	@Setup
+	public void setUp() {
+		this.objectMapper = new ObjectMapper();
+		this.objectMapper.registerModule(new Jackson2HalModule());
+		this.objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new AnnotationLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		List<NoteSummary> notes = new ArrayList<>(this.size);
+		for (int i = 1; i <= this.size; i++) {
+			notes.add(new NoteSummary(i, 0, "Note " + i, "The body of note " + i));
+		}
+		this.notes = new NoteRepresentationModelAssembler(new SimpleMeterRegistry()).toCollectionModel(notes);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return this.objectMapper.writeValueAsBytes(this.notes);
+	}
+
+}
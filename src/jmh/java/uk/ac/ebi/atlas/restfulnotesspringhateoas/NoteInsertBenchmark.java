@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures the number of tagged notes inserted per second, in chunks the size of a
+ * batch request's, for different id allocation sizes. Sequence ids never stop Hibernate
+ * from batching the inserts into the note and note_tags tables; only IDENTITY ids do.
+ * With an allocation size of one, though, every note costs a round trip to the sequence
+ * before it is inserted, and larger sizes spread that round trip over many notes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class NoteInsertBenchmark {
+
+	private static final long SEED = 20240501L;
+
+	private static final int TAGS = 100;
+
+	private static final int MAX_TAGS_PER_NOTE = 5;
+
+	private static final int CHUNK_SIZE = 500;
+
+	@Param({ "1", "50", "500" })
+	private int allocationSize;
+
+	private ConfigurableApplicationContext context;
+
+	private NoteRepository noteRepository;
+
+	private List<Tag> tags;
+
+	private Random random;
+
+	@Setup
+	public void setUp() {
+		this.context = new SpringApplicationBuilder(RestNotesSpringHateoas.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:insert-benchmark-" + this.allocationSize,
+						"restnotes.ids.allocation-size=" + this.allocationSize,
+						"restnotes.search.rebuild-on-startup=false", "logging.level.root=warn")
+				.run();
+		this.noteRepository = this.context.getBean(NoteRepository.class);
+		this.tags = new ArrayList<>(TAGS);
+		for (int i = 0; i < TAGS; i++) {
+			Tag tag = new Tag();
+			tag.setName("tag-" + i);
+			this.tags.add(tag);
+		}
+		this.context.getBean(TagRepository.class).saveAll(this.tags);
+		this.random = new Random(SEED);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteNotes() {
+		this.noteRepository.deleteAll();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CHUNK_SIZE)
+	public void insertNotes() {
+		List<Note> chunk = new ArrayList<>(CHUNK_SIZE);
+		for (int i = 0; i < CHUNK_SIZE; i++) {
+			Note note = new Note();
+			note.setTitle("Note " + i);
+			note.setBody("The body of note " + i);
+			List<Tag> noteTags = new ArrayList<>();
+			for (int j = this.random.nextInt(MAX_TAGS_PER_NOTE + 1); j > 0; j--) {
+				noteTags.add(this.tags.get(this.random.nextInt(TAGS)));
+			}
+			note.setTags(noteTags);
+			chunk.add(note);
+		}
+		this.noteRepository.saveAll(chunk);
+	}
+
+}
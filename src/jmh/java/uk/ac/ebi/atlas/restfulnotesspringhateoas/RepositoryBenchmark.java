@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Measures the repository queries behind the notes and tags resources against an
+ * in-memory H2 database. The data set is generated from a fixed seed so that results
+ * from different commits can be compared. Run with the {@code gc} profiler to compare
+ * the memory allocated per operation when reading entities and summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RepositoryBenchmark {
+
+	private static final long SEED = 20240501L;
+
+	private static final int TAGS = 100;
+
+	private static final int MAX_TAGS_PER_NOTE = 5;
+
+	@Param({ "10000" })
+	private int notes;
+
+	private ConfigurableApplicationContext context;
+
+	private NoteRepository noteRepository;
+
+	private List<Tag> queriedTags;
+
+	@Setup
+	public void setUp() {
+		this.context = new SpringApplicationBuilder(RestNotesSpringHateoas.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:benchmark", "logging.level.root=warn")
+				.run();
+		this.noteRepository = this.context.getBean(NoteRepository.class);
+		TagRepository tagRepository = this.context.getBean(TagRepository.class);
+
+		Random random = new Random(SEED);
+		List<Tag> tags = new ArrayList<>(TAGS);
+		for (int i = 0; i < TAGS; i++) {
+			Tag tag = new Tag();
+			tag.setName("tag-" + i);
+			tags.add(tag);
+		}
+		tagRepository.saveAll(tags);
+
+		List<Note> chunk = new ArrayList<>();
+		for (int i = 0; i < this.notes; i++) {
+			Note note = new Note();
+			note.setTitle("Note " + i);
+			note.setBody("The body of note " + i);
+			List<Tag> noteTags = new ArrayList<>();
+			for (int j = random.nextInt(MAX_TAGS_PER_NOTE + 1); j > 0; j--) {
+				noteTags.add(tags.get(random.nextInt(TAGS)));
+			}
+			note.setTags(noteTags);
+			chunk.add(note);
+			if (chunk.size() == 500) {
+				this.noteRepository.saveAll(chunk);
+				chunk.clear();
+			}
+		}
+		this.noteRepository.saveAll(chunk);
+		this.queriedTags = List.of(tags.get(random.nextInt(TAGS)), tags.get(random.nextInt(TAGS)),
+				tags.get(random.nextInt(TAGS)));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Iterable<Note> findAll() {
+		return this.noteRepository.findAll();
+	}
+
+	@Benchmark
+	public List<NoteSummary> findAllSummaries() {
+		return this.noteRepository.findSummariesByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, Limit.unlimited());
+	}
+
+	@Benchmark
+	public List<Note> findByTagsIn() {
+		return this.noteRepository.findByTagsIn(this.queriedTags);
+	}
+
+}
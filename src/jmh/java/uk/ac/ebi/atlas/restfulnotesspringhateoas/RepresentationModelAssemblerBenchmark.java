@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteRepresentationModelAssembler.NoteModel;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Compares rendering a collection of notes with links built by {@code linkTo(methodOn(...))}
+ * for every item against {@link NoteRepresentationModelAssembler}, which resolves the
+ * controller's base URI once per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RepresentationModelAssemblerBenchmark {
+
+	@Param({ "10000" })
+	private int size;
+
+	private final NoteRepresentationModelAssembler assembler = new NoteRepresentationModelAssembler(new SimpleMeterRegistry());
+
+	private List<NoteSummary> notes;
+
+	@Setup
+	public void createNotes() {
+		this.notes = new ArrayList<>(this.size);
+		for (int i = 1; i <= this.size; i++) {
+			this.notes.add(new NoteSummary(i, 0, "Note " + i, "The body of note " + i));
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void startRequest() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	@TearDown(Level.Invocation)
+	public void endRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public CollectionModel<NoteModel> methodOnLinks() {
+		List<NoteModel> models = new ArrayList<>(this.notes.size());
+		for (NoteSummary note: this.notes) {
+			NoteModel model = new NoteModel(note);
+			model.add(linkTo(methodOn(NotesController.class).note(note.getId(), null, null, null)).withSelfRel(),
+					linkTo(methodOn(NotesController.class).noteTags(note.getId())).withRel("note-tags"));
+			models.add(model);
+		}
+		return CollectionModel.of(models);
+	}
+
+	@Benchmark
+	public CollectionModel<NoteModel> cachedBaseUri() {
+		return this.assembler.toCollectionModel(this.notes);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Measures the time taken to delete a tag that is carried by every note, for up to a
+ * million notes. Each iteration deletes one freshly associated tag. The notes and their
+ * associations are inserted with plain SQL so that setting up a large tag stays cheap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TagDeleteBenchmark {
+
+	@Param({ "10000", "1000000" })
+	private int associations;
+
+	private ConfigurableApplicationContext context;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TagRepository tagRepository;
+
+	private TagsController tagsController;
+
+	private long tagId;
+
+	@Setup
+	public void setUp() {
+		this.context = new SpringApplicationBuilder(RestNotesSpringHateoas.class)
+				.web(WebApplicationType.NONE)
+				.properties("spring.datasource.url=jdbc:h2:mem:tag-delete-benchmark-" + this.associations,
+						"restnotes.search.rebuild-on-startup=false", "logging.level.root=warn")
+				.run();
+		this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+		this.tagRepository = this.context.getBean(TagRepository.class);
+		this.tagsController = this.context.getBean(TagsController.class);
+		this.jdbcTemplate.update("insert into note (id, version, title, body) "
+				+ "select x, 0, 'Note ' || x, 'The body of note ' || x from system_range(1, ?)", this.associations);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Setup(Level.Iteration)
+	public void tagEveryNote() {
+		Tag tag = new Tag();
+		tag.setName("tag");
+		this.tagId = this.tagRepository.save(tag).getId();
+		this.jdbcTemplate.update("insert into note_tags (notes_id, tags_id) select id, ? from note", this.tagId);
+	}
+
+	@Benchmark
+	public void deleteTag() {
+		this.tagsController.delete(this.tagId);
+	}
+
+}
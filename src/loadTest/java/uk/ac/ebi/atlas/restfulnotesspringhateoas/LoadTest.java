@@ -0,0 +1,215 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives a running instance of the service with a fixed number of concurrent clients and
+ * reports its throughput and latency percentiles. Each client issues its next request as
+ * soon as the previous one completes, alternating between a page of notes and a single
+ * note. The service is seeded with notes before the run starts.
+ * <p>
+ * Arguments are given as {@code name=value}: {@code baseUri} (default
+ * {@code http://localhost:8080}), {@code clients} (2000), {@code notes} (1000),
+ * {@code warmup} and {@code duration} in seconds (10 and 60).
+ */
+public final class LoadTest {
+
+	private static final Pattern LOCATION = Pattern.compile("\"location\"\\s*:\\s*\"([^\"]+)\"");
+
+	private final HttpClient httpClient;
+
+	private final ExecutorService executor;
+
+	private final URI baseUri;
+
+	private final List<URI> noteUris = new ArrayList<>();
+
+	private LoadTest(URI baseUri) {
+		this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		this.httpClient = HttpClient.newBuilder()
+				.executor(this.executor)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		this.baseUri = baseUri;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> arguments = new HashMap<>();
+		for (String arg: args) {
+			String[] nameAndValue = arg.split("=", 2);
+			arguments.put(nameAndValue[0], (nameAndValue.length > 1) ? nameAndValue[1] : "");
+		}
+		URI baseUri = URI.create(arguments.getOrDefault("baseUri", "http://localhost:8080"));
+		int clients = Integer.parseInt(arguments.getOrDefault("clients", "2000"));
+		int notes = Integer.parseInt(arguments.getOrDefault("notes", "1000"));
+		Duration warmup = Duration.ofSeconds(Long.parseLong(arguments.getOrDefault("warmup", "10")));
+		Duration duration = Duration.ofSeconds(Long.parseLong(arguments.getOrDefault("duration", "60")));
+
+		LoadTest loadTest = new LoadTest(baseUri);
+		try {
+			loadTest.seed(notes);
+			System.out.printf("Warming up with %d clients for %ds%n", clients, warmup.toSeconds());
+			loadTest.run(clients, warmup);
+			System.out.printf("Measuring with %d clients for %ds%n", clients, duration.toSeconds());
+			loadTest.run(clients, duration).print(System.out);
+		}
+		finally {
+			loadTest.executor.shutdownNow();
+		}
+	}
+
+	private void seed(int notes) throws Exception {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < notes; i++) {
+			body.append("{\"title\":\"Load test note ").append(i)
+				.append("\",\"body\":\"Created to give the load test something to read\"}\n");
+		}
+		HttpResponse<String> response = this.httpClient.send(HttpRequest.newBuilder(this.baseUri.resolve("/notes/batch"))
+				.header("Content-Type", "application/x-ndjson")
+				.POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+				.build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+		}
+		Matcher matcher = LOCATION.matcher(response.body());
+		while (matcher.find()) {
+			this.noteUris.add(URI.create(matcher.group(1)));
+		}
+	}
+
+	private Result run(int clients, Duration duration) {
+		long end = System.nanoTime() + duration.toNanos();
+		List<Client> running = new ArrayList<>(clients);
+		for (int i = 0; i < clients; i++) {
+			Client client = new Client(end);
+			client.next();
+			running.add(client);
+		}
+		long start = System.nanoTime();
+		CompletableFuture.allOf(running.stream().map((client) -> client.done).toArray(CompletableFuture[]::new)).join();
+		return new Result(running, System.nanoTime() - start);
+	}
+
+	private final class Client {
+
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		private final long end;
+
+		private long[] latencies = new long[1024];
+
+		private int requests;
+
+		private int errors;
+
+		private boolean page;
+
+		private Client(long end) {
+			this.end = end;
+		}
+
+		private void next() {
+			if (System.nanoTime() >= this.end) {
+				this.done.complete(null);
+				return;
+			}
+			this.page = !this.page;
+			URI uri = (this.page || LoadTest.this.noteUris.isEmpty()) ? LoadTest.this.baseUri.resolve("/notes?size=20")
+					: LoadTest.this.noteUris.get(ThreadLocalRandom.current().nextInt(LoadTest.this.noteUris.size()));
+			long start = System.nanoTime();
+			LoadTest.this.httpClient
+				.sendAsync(HttpRequest.newBuilder(uri).header("Accept", "application/hal+json").build(),
+						HttpResponse.BodyHandlers.discarding())
+				.whenCompleteAsync((response, failure) -> {
+					record(System.nanoTime() - start, failure == null && response.statusCode() < 400);
+					next();
+				}, LoadTest.this.executor);
+		}
+
+		private void record(long latency, boolean succeeded) {
+			if (this.requests == this.latencies.length) {
+				this.latencies = Arrays.copyOf(this.latencies, this.requests * 2);
+			}
+			this.latencies[this.requests++] = latency;
+			if (!succeeded) {
+				this.errors++;
+			}
+		}
+
+	}
+
+	private static final class Result {
+
+		private final long[] latencies;
+
+		private final int errors;
+
+		private final long elapsed;
+
+		private Result(List<Client> clients, long elapsed) {
+			int requests = 0;
+			int errors = 0;
+			for (Client client: clients) {
+				requests += client.requests;
+				errors += client.errors;
+			}
+			this.latencies = new long[requests];
+			int offset = 0;
+			for (Client client: clients) {
+				System.arraycopy(client.latencies, 0, this.latencies, offset, client.requests);
+				offset += client.requests;
+			}
+			Arrays.sort(this.latencies);
+			this.errors = errors;
+			this.elapsed = elapsed;
+		}
+
+		private void print(PrintStream out) {
+			out.printf("Requests:   %d (%d failed)%n", this.latencies.length, this.errors);
+			out.printf("Throughput: %.1f requests/s%n", this.latencies.length / (this.elapsed / 1e9));
+			out.printf("Latency:    p50 %.1fms, p99 %.1fms, max %.1fms%n", percentile(0.50), percentile(0.99),
+					percentile(1.0));
+		}
+
+		private double percentile(double percentile) {
+			if (this.latencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile * this.latencies.length) - 1;
+			return this.latencies[Math.max(index, 0)] / 1e6;
+		}
+
+	}
+
+}
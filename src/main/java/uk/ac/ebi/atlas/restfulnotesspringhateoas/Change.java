@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+/**
+ * A change to a note or tag recorded in the {@link ChangeLog}.
+ */
+class Change {
+
+	enum Resource {
+
+		NOTE("note"), TAG("tag");
+
+		private final String name;
+
+		Resource(String name) {
+			this.name = name;
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+	}
+
+	enum Type {
+
+		CREATED("created"), UPDATED("updated"), DELETED("deleted");
+
+		private final String name;
+
+		Type(String name) {
+			this.name = name;
+		}
+
+		String getName() {
+			return this.name;
+		}
+
+	}
+
+	private final long sequence;
+
+	private final Resource resource;
+
+	private final long id;
+
+	private final Type type;
+
+	Change(long sequence, Resource resource, long id, Type type) {
+		this.sequence = sequence;
+		this.resource = resource;
+		this.id = id;
+		this.type = type;
+	}
+
+	long getSequence() {
+		return this.sequence;
+	}
+
+	Resource getResource() {
+		return this.resource;
+	}
+
+	long getId() {
+		return this.id;
+	}
+
+	Type getType() {
+		return this.type;
+	}
+
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A log of the notes and tags that have been created, updated and deleted, kept in a
+ * ring buffer of the most recent changes. Changes are numbered in the order in which
+ * their transactions committed, so a client that remembers the last number it has seen
+ * can ask for what has changed since, rather than reading every note again, or
+ * subscribe to changes as they happen.
+ * <p>
+ * The log is not persisted, so numbering starts from the time the log was created, in
+ * thousands of changes per millisecond. A number seen before a restart is therefore
+ * lower than any number in the new log, and a client that asks for changes since it is
+ * told that they have expired rather than being sent changes it has not seen.
+ */
+@Component
+class ChangeLog implements DisposableBean {
+
+	private final Change[] changes;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	// Each subscriber is sent its changes by a task of its own, so a client that stops
+	// reading only holds up the thread that is writing to it
+	private final ExecutorService publishers = Executors.newCachedThreadPool((runnable) -> {
+		Thread thread = new Thread(runnable, "change-log-publisher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+		Thread thread = new Thread(runnable, "change-log-heartbeat");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final int subscriberBuffer;
+
+	private final long firstSequence = System.currentTimeMillis() * 1000;
+
+	private long lastSequence = this.firstSequence - 1;
+
+	ChangeLog(RestNotesProperties properties) {
+		RestNotesProperties.Changes changes = properties.getChanges();
+		this.changes = new Change[changes.getCapacity()];
+		this.subscriberBuffer = changes.getSubscriberBuffer();
+		long interval = changes.getHeartbeatInterval().toMillis();
+		this.heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteSaved(NoteSavedEvent event) {
+		append(Change.Resource.NOTE, event.getId(), event.isCreated() ? Change.Type.CREATED : Change.Type.UPDATED);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteDeleted(NoteDeletedEvent event) {
+		append(Change.Resource.NOTE, event.getId(), Change.Type.DELETED);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void tagSaved(TagSavedEvent event) {
+		append(Change.Resource.TAG, event.getId(), event.isCreated() ? Change.Type.CREATED : Change.Type.UPDATED);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void tagDeleted(TagDeletedEvent event) {
+		append(Change.Resource.TAG, event.getId(), Change.Type.DELETED);
+	}
+
+	private synchronized void append(Change.Resource resource, long id, Change.Type type) {
+		Change change = new Change(++this.lastSequence, resource, id, type);
+		this.changes[(int) (change.getSequence() % this.changes.length)] = change;
+		// Queued while holding the lock, and only to current subscribers, so that each
+		// subscriber sees every change once and in order
+		for (Subscriber subscriber: this.subscribers) {
+			if (!subscriber.offer(change)) {
+				// Too far behind to keep up. The client can reconnect with the last id it
+				// saw and read the rest from the log.
+				this.subscribers.remove(subscriber);
+				subscriber.emitter.complete();
+			}
+		}
+	}
+
+	private void heartbeat() {
+		for (Subscriber subscriber: this.subscribers) {
+			subscriber.heartbeat();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} changes that were made after the change with the given
+	 * sequence number, oldest first, or the oldest changes in the log if {@code since}
+	 * is {@code null}.
+	 * @throws ChangesExpiredException if some of those changes are no longer in the log,
+	 * or if {@code since} is not a change in this log, such as one from before a restart
+	 */
+	synchronized List<Change> since(Long since, int limit) {
+		long first = Math.max(this.firstSequence, this.lastSequence - this.changes.length + 1);
+		long from = (since != null) ? since + 1 : first;
+		if (from < first || from > this.lastSequence + 1) {
+			throw new ChangesExpiredException();
+		}
+		List<Change> changes = new ArrayList<>();
+		for (long sequence = from; sequence <= this.lastSequence && changes.size() < limit; sequence++) {
+			changes.add(this.changes[(int) (sequence % this.changes.length)]);
+		}
+		return changes;
+	}
+
+	synchronized long getLastSequence() {
+		return this.lastSequence;
+	}
+
+	/**
+	 * Sends every change made after the change with the given sequence number to an
+	 * emitter, first those that are already in the log and then new changes as they are
+	 * made, until the emitter completes or fails. Each change is sent as the data of an
+	 * event whose id is the change's sequence number. A subscriber that falls more than
+	 * {@code restnotes.changes.subscriber-buffer} changes behind is completed, and idle
+	 * subscribers are sent a comment every {@code restnotes.changes.heartbeat-interval}
+	 * so that closed connections are noticed.
+	 * @throws ChangesExpiredException if some of the earlier changes are no longer in
+	 * the log
+	 */
+	synchronized void subscribe(long since, SseEmitter emitter, Function<Change, ?> representation) {
+		List<Change> backlog = since(since, Integer.MAX_VALUE);
+		Subscriber subscriber = new Subscriber(emitter, representation, backlog);
+		emitter.onCompletion(() -> this.subscribers.remove(subscriber));
+		emitter.onTimeout(() -> this.subscribers.remove(subscriber));
+		emitter.onError((ex) -> this.subscribers.remove(subscriber));
+		this.subscribers.add(subscriber);
+		subscriber.schedule();
+	}
+
+	@Override
+	public void destroy() {
+		this.heartbeats.shutdownNow();
+		this.publishers.shutdownNow();
+		for (Subscriber subscriber: this.subscribers) {
+			subscriber.emitter.complete();
+		}
+	}
+
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+
+		private final Function<Change, ?> representation;
+
+		private final Deque<Change> pending;
+
+		// The backlog does not count against the buffer
+		private final int limit;
+
+		private boolean heartbeat;
+
+		private boolean scheduled;
+
+		private Subscriber(SseEmitter emitter, Function<Change, ?> representation, List<Change> backlog) {
+			this.emitter = emitter;
+			this.representation = representation;
+			this.pending = new ArrayDeque<>(backlog);
+			this.limit = backlog.size() + ChangeLog.this.subscriberBuffer;
+		}
+
+		/**
+		 * Queues a change to be sent, returning {@code false} if the subscriber's buffer
+		 * is full.
+		 */
+		private synchronized boolean offer(Change change) {
+			if (this.pending.size() >= this.limit) {
+				return false;
+			}
+			this.pending.add(change);
+			schedule();
+			return true;
+		}
+
+		/**
+		 * Queues a heartbeat unless changes are waiting to be sent, which would do as well.
+		 */
+		private synchronized void heartbeat() {
+			if (!this.scheduled) {
+				this.heartbeat = true;
+				schedule();
+			}
+		}
+
+		private synchronized void schedule() {
+			if (!this.scheduled) {
+				this.scheduled = true;
+				ChangeLog.this.publishers.execute(this::publish);
+			}
+		}
+
+		/**
+		 * Sends the queued changes until there are none left. At most one publisher
+		 * thread runs this for a subscriber at a time.
+		 */
+		private void publish() {
+			try {
+				while (true) {
+					boolean heartbeat;
+					List<Change> changes;
+					synchronized (this) {
+						heartbeat = this.heartbeat;
+						this.heartbeat = false;
+						changes = new ArrayList<>(this.pending);
+						this.pending.clear();
+						if (changes.isEmpty() && !heartbeat) {
+							this.scheduled = false;
+							return;
+						}
+					}
+					if (heartbeat) {
+						this.emitter.send(SseEmitter.event().comment("heartbeat"));
+					}
+					for (Change change: changes) {
+						this.emitter.send(SseEmitter.event()
+							.id(Long.toString(change.getSequence()))
+							.data(this.representation.apply(change)));
+					}
+				}
+			}
+			catch (IOException | IllegalStateException ex) {
+				ChangeLog.this.subscribers.remove(this);
+				this.emitter.completeWithError(ex);
+			}
+		}
+
+	}
+
+}
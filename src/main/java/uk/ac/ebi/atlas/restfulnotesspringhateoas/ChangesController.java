@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Exposes the {@link ChangeLog}, either a page at a time or as a stream of server-sent
+ * events.
+ */
+@RestController
+@RequestMapping("/changes")
+class ChangesController {
+
+	private final ChangeLog changeLog;
+
+	private final RestNotesProperties.Paging paging;
+
+	private final RestNotesProperties.Changes changes;
+
+	ChangesController(ChangeLog changeLog, RestNotesProperties properties) {
+		this.changeLog = changeLog;
+		this.paging = properties.getPaging();
+		this.changes = properties.getChanges();
+	}
+
+	@RequestMapping(method = RequestMethod.GET)
+	CollectionModel<ChangeModel> changes(@RequestParam(name = "since", required = false) Long since,
+			@RequestParam(name = "size", required = false) Integer size) {
+		List<Change> changes = this.changeLog.since(since, this.paging.pageSize(size));
+		String notesUri = ControllerUris.of(NotesController.class);
+		String tagsUri = ControllerUris.of(TagsController.class);
+		List<ChangeModel> models = new ArrayList<>(changes.size());
+		for (Change change: changes) {
+			models.add(new ChangeModel(change, notesUri, tagsUri));
+		}
+
+		CollectionModel<ChangeModel> page = CollectionModel.of(models);
+		page.add(linkTo(methodOn(ChangesController.class).changes(since, size)).withSelfRel());
+		Long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+		page.add(linkTo(methodOn(ChangesController.class).changes(next, size)).withRel(IanaLinkRelations.NEXT));
+		return page;
+	}
+
+	@RequestMapping(method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	SseEmitter stream(@RequestParam(name = "since", required = false) Long since,
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		String notesUri = ControllerUris.of(NotesController.class);
+		String tagsUri = ControllerUris.of(TagsController.class);
+		SseEmitter emitter = new SseEmitter(this.changes.getStreamTimeout().toMillis());
+		long from = (lastEventId != null) ? lastEventId : (since != null) ? since : this.changeLog.getLastSequence();
+		this.changeLog.subscribe(from, emitter, (change) -> new ChangeModel(change, notesUri, tagsUri));
+		return emitter;
+	}
+
+	@Relation(collectionRelation = "changes", itemRelation = "change")
+	static class ChangeModel extends RepresentationModel<ChangeModel> {
+
+		private final long sequence;
+
+		private final String resource;
+
+		private final String type;
+
+		ChangeModel(Change change, String notesUri, String tagsUri) {
+			this.sequence = change.getSequence();
+			this.resource = change.getResource().getName();
+			this.type = change.getType().getName();
+			String baseUri = (change.getResource() == Change.Resource.NOTE) ? notesUri : tagsUri;
+			add(Link.of(baseUri + "/" + change.getId(), this.resource));
+		}
+
+		public long getSequence() {
+			return this.sequence;
+		}
+
+		public String getResource() {
+			return this.resource;
+		}
+
+		public String getType() {
+			return this.type;
+		}
+
+	}
+
+}
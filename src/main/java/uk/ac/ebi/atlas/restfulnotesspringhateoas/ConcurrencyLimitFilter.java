@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limits the number of requests that are handled at the same time when requests run on
+ * virtual threads. Without a bounded thread pool every accepted request would go on to
+ * wait for a database connection, and those that wait longer than the pool's connection
+ * timeout would fail. Requests instead queue here, cheaply, and are rejected with
+ * {@code 503 Service Unavailable} if no permit becomes available in time.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final Semaphore permits;
+
+	private final long maxWaitMillis;
+
+	ConcurrencyLimitFilter(RestNotesProperties properties) {
+		RestNotesProperties.Concurrency concurrency = properties.getConcurrency();
+		this.permits = new Semaphore(concurrency.getMaxRequests(), true);
+		this.maxWaitMillis = concurrency.getMaxWait().toMillis();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean acquired;
+		try {
+			acquired = this.permits.tryAcquire(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "The service is busy");
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+}
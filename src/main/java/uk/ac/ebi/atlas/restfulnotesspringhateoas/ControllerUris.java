@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the base URI of a controller at most once per request. Building a link with
+ * {@code linkTo(methodOn(...))} proxies the controller and parses the current request
+ * every time; assemblers that render whole collections append ids to the cached base
+ * URI instead.
+ */
+final class ControllerUris {
+
+	private static final String ATTRIBUTE_PREFIX = ControllerUris.class.getName() + ".";
+
+	private ControllerUris() {
+	}
+
+	static String of(Class<?> controller) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return linkTo(controller).toUri().toString();
+		}
+		String attribute = ATTRIBUTE_PREFIX + controller.getName();
+		String uri = (String) attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+		if (uri == null) {
+			uri = linkTo(controller).toUri().toString();
+			attributes.setAttribute(attribute, uri, RequestAttributes.SCOPE_REQUEST);
+		}
+		return uri;
+	}
+
+}
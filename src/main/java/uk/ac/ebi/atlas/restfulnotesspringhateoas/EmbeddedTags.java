@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler.TagModel;
+
+/**
+ * Looks up the tags of a page of notes with a single query, rather than one query per
+ * note, so that they can be embedded in the notes' representations.
+ */
+@Component
+class EmbeddedTags {
+
+	private final TagRepository tagRepository;
+
+	private final TagRepresentationModelAssembler tagAssembler;
+
+	EmbeddedTags(TagRepository tagRepository, TagRepresentationModelAssembler tagAssembler) {
+		this.tagRepository = tagRepository;
+		this.tagAssembler = tagAssembler;
+	}
+
+	/**
+	 * Returns the models of the tags of each of the given notes, keyed by note id. Every
+	 * note has an entry, which is empty if the note has no tags.
+	 */
+	Map<Long, List<TagModel>> of(Collection<NoteSummary> notes) {
+		Map<Long, List<TagModel>> tagsByNote = new HashMap<>();
+		if (notes.isEmpty()) {
+			return tagsByNote;
+		}
+		List<Long> noteIds = new ArrayList<>(notes.size());
+		for (NoteSummary note: notes) {
+			noteIds.add(note.getId());
+			tagsByNote.put(note.getId(), new ArrayList<>());
+		}
+		for (NoteTagSummary tag: this.tagRepository.findSummariesByNoteIdIn(noteIds)) {
+			tagsByNote.get(tag.getNoteId()).add(this.tagAssembler.toModel(tag));
+		}
+		return tagsByNote;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Strong entity tags derived from the JPA version of a note or tag. A tag's
+ * representation also includes its note count, which can change without changing the
+ * tag's version, so the entity tag of a tag includes both.
+ */
+final class EntityTags {
+
+	private EntityTags() {
+	}
+
+	static String of(long version) {
+		return "\"" + version + "\"";
+	}
+
+	static String of(long version, int count) {
+		return "\"" + version + "-" + count + "\"";
+	}
+
+	/**
+	 * Checks an {@code If-Match} request header against the current version of a
+	 * resource, throwing {@link PreconditionFailedException} if none of its entity tags
+	 * match. A missing header always matches, as does an entity tag that combines the
+	 * current version with any count, since the count is not changed by an update.
+	 */
+	static void checkIfMatch(String ifMatch, long version) {
+		if (!StringUtils.hasText(ifMatch)) {
+			return;
+		}
+		String eTag = of(version);
+		String versionPrefix = "\"" + version + "-";
+		for (String candidate: StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.startsWith(versionPrefix)) {
+				return;
+			}
+		}
+		throw new PreconditionFailedException();
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Passes the configured id allocation size to Hibernate for the
+ * {@link PooledSequenceGenerator}.
+ */
+@Component
+class IdAllocationHibernatePropertiesCustomizer implements HibernatePropertiesCustomizer {
+
+	private final int allocationSize;
+
+	IdAllocationHibernatePropertiesCustomizer(RestNotesProperties properties) {
+		this.allocationSize = properties.getIds().getAllocationSize();
+	}
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE, this.allocationSize);
+	}
+
+}
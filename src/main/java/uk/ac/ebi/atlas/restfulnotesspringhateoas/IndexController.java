@@ -32,6 +32,7 @@ class IndexController {
 		RepresentationModel<?> index = new RepresentationModel<>();
 		index.add(linkTo(NotesController.class).withRel("notes"));
 		index.add(linkTo(TagsController.class).withRel("tags"));
+		index.add(linkTo(ChangesController.class).withRel("changes"));
 		return index;
 	}
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of a collection resource that was read by seeking from a cursor id rather
+ * than by skipping an offset. Repositories are asked for one row more than the page
+ * size so that the presence of a further page can be detected without a count query.
+ */
+final class KeysetSlice<T> {
+
+	private final List<T> content;
+
+	private final boolean hasNext;
+
+	private final boolean hasPrevious;
+
+	private KeysetSlice(List<T> content, boolean hasNext, boolean hasPrevious) {
+		this.content = content;
+		this.hasNext = hasNext;
+		this.hasPrevious = hasPrevious;
+	}
+
+	/**
+	 * Creates a slice from rows read in ascending id order after a cursor.
+	 */
+	static <T> KeysetSlice<T> after(List<T> ascending, int size, boolean hasCursor) {
+		boolean hasNext = ascending.size() > size;
+		List<T> content = hasNext ? ascending.subList(0, size) : ascending;
+		return new KeysetSlice<>(content, hasNext, hasCursor && !content.isEmpty());
+	}
+
+	/**
+	 * Creates a slice from rows read in descending id order before a cursor.
+	 */
+	static <T> KeysetSlice<T> before(List<T> descending, int size) {
+		boolean hasPrevious = descending.size() > size;
+		List<T> content = new ArrayList<>(hasPrevious ? descending.subList(0, size) : descending);
+		Collections.reverse(content);
+		return new KeysetSlice<>(content, !content.isEmpty(), hasPrevious);
+	}
+
+	/**
+	 * Returns a slice with the same position in the collection as this one but with the
+	 * given content, for example the entities identified by the ids in this slice. As
+	 * the content provides the cursors for the neighbouring slices, an empty slice has
+	 * none.
+	 */
+	<U> KeysetSlice<U> map(List<U> content) {
+		return new KeysetSlice<>(content, this.hasNext && !content.isEmpty(),
+				this.hasPrevious && !content.isEmpty());
+	}
+
+	List<T> getContent() {
+		return this.content;
+	}
+
+	T getFirst() {
+		return this.content.get(0);
+	}
+
+	T getLast() {
+		return this.content.get(this.content.size() - 1);
+	}
+
+	boolean hasNext() {
+		return this.hasNext;
+	}
+
+	boolean hasPrevious() {
+		return this.hasPrevious;
+	}
+
+}
@@ -18,24 +18,43 @@ package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 
 @Entity
+@EntityListeners(NoteEntityListener.class)
 public class Note {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_seq")
+	@GenericGenerator(name = "note_seq", type = PooledSequenceGenerator.class,
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "note_seq"))
 	private long id;
 
+	@Version
+	private long version;
+
 	private String title;
 
 	private String body;
 
 	@ManyToMany
+	@JoinTable(name = "note_tags", joinColumns = @JoinColumn(name = "notes_id"),
+			inverseJoinColumns = @JoinColumn(name = "tags_id"))
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "note-tags")
 	private List<Tag> tags;
 
 	public long getId() {
@@ -46,6 +65,14 @@ public class Note {
 		this.id = id;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	public String getTitle() {
 		return title;
 	}
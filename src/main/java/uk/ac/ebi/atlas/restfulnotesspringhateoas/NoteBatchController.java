@@ -0,0 +1,288 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Creates, updates and deletes many notes from a single request. The body of a batch
+ * create is read incrementally, either as a JSON array or as newline-delimited JSON, and
+ * every chunk of notes is written in its own transaction so that neither the request nor
+ * the persistence context grows with the size of the batch. Bulk updates and deletes
+ * apply the same change to every chunk of ids with set-based statements that never load
+ * the notes, and publish the events that the entity listeners would otherwise have
+ * published.
+ */
+@RestController
+@RequestMapping("/notes")
+class NoteBatchController {
+
+	private final NoteRepository noteRepository;
+
+	private final TagResolver tagResolver;
+
+	private final RepresentationCache representationCache;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final ObjectMapper objectMapper;
+
+	private final Validator validator;
+
+	private final EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int chunkSize;
+
+	NoteBatchController(NoteRepository noteRepository, TagResolver tagResolver,
+			RepresentationCache representationCache, ApplicationEventPublisher eventPublisher,
+			ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+			PlatformTransactionManager transactionManager, RestNotesProperties properties) {
+		this.noteRepository = noteRepository;
+		this.tagResolver = tagResolver;
+		this.representationCache = representationCache;
+		this.eventPublisher = eventPublisher;
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = properties.getBatch().getChunkSize();
+	}
+
+	@RequestMapping(value = "/batch", method = RequestMethod.POST, consumes = { MediaType.APPLICATION_JSON_VALUE,
+			MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	NoteBatchResult createAll(HttpServletRequest request) throws IOException {
+		NoteBatchResult result = new NoteBatchResult();
+		String notesUri = linkTo(NotesController.class).toUri().toString();
+		List<NoteInput> chunk = new ArrayList<>(this.chunkSize);
+		String malformed = null;
+		try (MappingIterator<NoteInput> inputs = this.objectMapper.readerFor(NoteInput.class)
+				.readValues(request.getInputStream())) {
+			while (inputs.hasNextValue()) {
+				chunk.add(inputs.nextValue());
+				if (chunk.size() == this.chunkSize) {
+					createChunk(chunk, notesUri, result);
+					chunk.clear();
+				}
+			}
+		}
+		catch (JsonProcessingException ex) {
+			// The rest of the body cannot be read reliably, so the notes before the
+			// malformed one are still created and the malformed one is the last item
+			malformed = "The note at index " + (result.getItems().size() + chunk.size()) + " is malformed: "
+					+ ex.getOriginalMessage();
+		}
+		if (!chunk.isEmpty()) {
+			createChunk(chunk, notesUri, result);
+		}
+		if (malformed != null) {
+			result.failed(malformed);
+		}
+		return result;
+	}
+
+	@RequestMapping(method = RequestMethod.PATCH)
+	NoteBulkResult updateAll(@RequestParam("ids") List<Long> ids, @RequestBody NotePatchInput noteInput) {
+		Set<ConstraintViolation<NotePatchInput>> violations = this.validator.validate(noteInput);
+		if (!violations.isEmpty()) {
+			throw new IllegalArgumentException(violations.stream()
+					.map((violation) -> "The " + violation.getPropertyPath() + " " + violation.getMessage())
+					.collect(Collectors.joining(", ")));
+		}
+		List<Long> tagIds = null;
+		if (noteInput.getTagUris() != null) {
+			tagIds = new ArrayList<>();
+			for (Tag tag: this.tagResolver.getTags(noteInput.getTagUris())) {
+				tagIds.add(tag.getId());
+			}
+		}
+		NoteBulkResult result = new NoteBulkResult();
+		for (List<Long> chunk: chunks(ids)) {
+			result.chunk(chunk.size(), updateChunk(chunk, noteInput, tagIds));
+		}
+		return result;
+	}
+
+	@RequestMapping(method = RequestMethod.DELETE)
+	NoteBulkResult deleteAll(@RequestParam("ids") List<Long> ids) {
+		NoteBulkResult result = new NoteBulkResult();
+		for (List<Long> chunk: chunks(ids)) {
+			result.chunk(chunk.size(), deleteChunk(chunk));
+		}
+		return result;
+	}
+
+	private int updateChunk(List<Long> ids, NotePatchInput noteInput, List<Long> tagIds) {
+		int updated = this.transactionTemplate.execute((status) -> {
+			int count = this.noteRepository.updateByIdIn(ids, noteInput.getTitle(), noteInput.getBody());
+			if (tagIds != null) {
+				this.noteRepository.deleteTagsByNoteIdIn(ids);
+				if (!tagIds.isEmpty()) {
+					this.noteRepository.insertTagsByNoteIdIn(ids, tagIds);
+				}
+			}
+			for (NoteSummary note: this.noteRepository.findSummariesByIdIn(ids)) {
+				this.eventPublisher.publishEvent(
+						new NoteSavedEvent(note.getId(), note.getTitle(), note.getBody(), tagIds, false));
+			}
+			return count;
+		});
+		evict(ids);
+		return updated;
+	}
+
+	private int deleteChunk(List<Long> ids) {
+		int deleted = this.transactionTemplate.execute((status) -> {
+			List<Long> existing = this.noteRepository.findIdsByIdIn(ids);
+			if (existing.isEmpty()) {
+				return 0;
+			}
+			this.noteRepository.deleteTagsByNoteIdIn(existing);
+			int count = this.noteRepository.deleteByIdIn(existing);
+			for (Long id: existing) {
+				this.eventPublisher.publishEvent(new NoteDeletedEvent(id));
+			}
+			return count;
+		});
+		evict(ids);
+		return deleted;
+	}
+
+	private void evict(List<Long> ids) {
+		for (Long id: ids) {
+			this.representationCache.evict(RepresentationCache.Type.NOTE, id);
+		}
+	}
+
+	private List<List<Long>> chunks(List<Long> ids) {
+		List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		List<List<Long>> chunks = new ArrayList<>();
+		for (int i = 0; i < distinct.size(); i += this.chunkSize) {
+			chunks.add(distinct.subList(i, Math.min(i + this.chunkSize, distinct.size())));
+		}
+		return chunks;
+	}
+
+	private void createChunk(List<NoteInput> inputs, String notesUri, NoteBatchResult result) {
+		String[] errors = new String[inputs.size()];
+		Set<Long> tagIds = new HashSet<>();
+		Set<String> tagNames = new HashSet<>();
+		for (int i = 0; i < inputs.size(); i++) {
+			errors[i] = validate(inputs.get(i), tagIds, tagNames);
+		}
+		Note[] notes = new Note[inputs.size()];
+		try {
+			this.transactionTemplate.executeWithoutResult((status) -> {
+				Map<Long, Tag> tagsById = this.tagResolver.findTags(tagIds);
+				Map<String, Tag> tagsByName = this.tagResolver.findTagsByName(tagNames);
+				List<Note> valid = new ArrayList<>(inputs.size());
+				for (int i = 0; i < inputs.size(); i++) {
+					if (errors[i] == null) {
+						try {
+							notes[i] = createNote(inputs.get(i), tagsById, tagsByName);
+							valid.add(notes[i]);
+						}
+						catch (IllegalArgumentException ex) {
+							errors[i] = ex.getMessage();
+						}
+					}
+				}
+				this.noteRepository.saveAll(valid);
+			});
+		}
+		catch (RuntimeException ex) {
+			for (int i = 0; i < inputs.size(); i++) {
+				if (errors[i] == null) {
+					errors[i] = "The note could not be stored: " + ex.getMessage();
+				}
+			}
+		}
+		finally {
+			this.entityManager.clear();
+		}
+		for (int i = 0; i < inputs.size(); i++) {
+			if (errors[i] != null) {
+				result.failed(errors[i]);
+			}
+			else {
+				result.created(notesUri + "/" + notes[i].getId());
+			}
+		}
+	}
+
+	private String validate(NoteInput input, Set<Long> tagIds, Set<String> tagNames) {
+		if (input == null) {
+			return "The note must not be null";
+		}
+		Set<ConstraintViolation<NoteInput>> violations = this.validator.validate(input);
+		if (!violations.isEmpty()) {
+			return violations.stream()
+					.map((violation) -> "The " + violation.getPropertyPath() + " " + violation.getMessage())
+					.collect(Collectors.joining(", "));
+		}
+		try {
+			for (URI tagLocation: input.getTagUris()) {
+				tagIds.add(TagResolver.extractTagId(tagLocation));
+			}
+			tagNames.addAll(input.getTagNames());
+			return null;
+		}
+		catch (IllegalArgumentException ex) {
+			return ex.getMessage();
+		}
+	}
+
+	private Note createNote(NoteInput input, Map<Long, Tag> tagsById, Map<String, Tag> tagsByName) {
+		Note note = new Note();
+		note.setTitle(input.getTitle());
+		note.setBody(input.getBody());
+		note.setTags(this.tagResolver.getTags(input.getTagUris(), input.getTagNames(), tagsById, tagsByName));
+		return note;
+	}
+
+}
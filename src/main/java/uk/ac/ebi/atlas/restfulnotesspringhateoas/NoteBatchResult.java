@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+class NoteBatchResult {
+
+	private final List<Item> items = new ArrayList<>();
+
+	private int created;
+
+	private int failed;
+
+	void created(String location) {
+		this.items.add(new Item(location, null));
+		this.created++;
+	}
+
+	void failed(String error) {
+		this.items.add(new Item(null, error));
+		this.failed++;
+	}
+
+	public int getCreated() {
+		return this.created;
+	}
+
+	public int getFailed() {
+		return this.failed;
+	}
+
+	public List<Item> getItems() {
+		return this.items;
+	}
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	static class Item {
+
+		private final String location;
+
+		private final String error;
+
+		Item(String location, String error) {
+			this.location = location;
+			this.error = error;
+		}
+
+		public String getLocation() {
+			return this.location;
+		}
+
+		public String getError() {
+			return this.error;
+		}
+
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+/**
+ * The outcome of a bulk change to notes: how many distinct notes were requested and
+ * how many of them existed and were changed.
+ */
+class NoteBulkResult {
+
+	private int requested;
+
+	private int affected;
+
+	void chunk(int requested, int affected) {
+		this.requested += requested;
+		this.affected += affected;
+	}
+
+	public int getRequested() {
+		return this.requested;
+	}
+
+	public int getAffected() {
+		return this.affected;
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Turns the persistence lifecycle of a {@link Note} into application events. The events
+ * are published while the transaction is still running, so listeners that maintain
+ * derived state should use {@link org.springframework.transaction.event.TransactionalEventListener}
+ * to only see changes that have been committed.
+ */
+class NoteEntityListener {
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	NoteEntityListener(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
+	@PostPersist
+	void noteCreated(Note note) {
+		this.eventPublisher.publishEvent(new NoteSavedEvent(note, true));
+	}
+
+	@PostUpdate
+	void noteUpdated(Note note) {
+		this.eventPublisher.publishEvent(new NoteSavedEvent(note, false));
+	}
+
+	@PostRemove
+	void noteRemoved(Note note) {
+		this.eventPublisher.publishEvent(new NoteDeletedEvent(note.getId()));
+	}
+
+}
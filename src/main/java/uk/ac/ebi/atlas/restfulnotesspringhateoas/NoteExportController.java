@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Streams every note as newline-delimited JSON. Notes are read as detached summaries
+ * through a database cursor and written in chunks, so the memory used by an export does
+ * not depend on the number of notes. An export is given longer to complete than other
+ * asynchronous requests, {@code restnotes.export.timeout}.
+ */
+@RestController
+@RequestMapping("/notes")
+class NoteExportController {
+
+	private static final byte NEWLINE = '\n';
+
+	private final NoteRepository noteRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectWriter writer;
+
+	private final int chunkSize;
+
+	private final CallableProcessingInterceptor timeout;
+
+	NoteExportController(NoteRepository noteRepository, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper, RestNotesProperties properties) {
+		this.noteRepository = noteRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.writer = objectMapper.writerFor(ExportedNote.class);
+		this.chunkSize = properties.getExport().getChunkSize();
+		this.timeout = new ExportTimeout(properties.getExport().getTimeout().toMillis());
+	}
+
+	@RequestMapping(value = "/export", method = RequestMethod.GET)
+	ResponseEntity<StreamingResponseBody> export(HttpServletRequest request) {
+		WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(NoteExportController.class, this.timeout);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(this::writeNotes);
+	}
+
+	private void writeNotes(OutputStream output) {
+		this.transactionTemplate.executeWithoutResult((status) -> {
+			try (Stream<NoteSummary> notes = this.noteRepository.streamAll()) {
+				List<NoteSummary> chunk = new ArrayList<>(this.chunkSize);
+				Iterator<NoteSummary> iterator = notes.iterator();
+				while (iterator.hasNext()) {
+					chunk.add(iterator.next());
+					if (chunk.size() == this.chunkSize) {
+						writeChunk(chunk, output);
+						chunk.clear();
+					}
+				}
+				writeChunk(chunk, output);
+			}
+		});
+	}
+
+	private void writeChunk(List<NoteSummary> notes, OutputStream output) {
+		if (notes.isEmpty()) {
+			return;
+		}
+		List<Long> noteIds = new ArrayList<>(notes.size());
+		for (NoteSummary note: notes) {
+			noteIds.add(note.getId());
+		}
+		Map<Long, List<Long>> tagIds = new HashMap<>();
+		for (NoteRepository.NoteTagId noteTagId: this.noteRepository.findTagIdsByNoteIdIn(noteIds)) {
+			tagIds.computeIfAbsent(noteTagId.getNoteId(), (noteId) -> new ArrayList<>()).add(noteTagId.getTagId());
+		}
+		try {
+			for (NoteSummary note: notes) {
+				output.write(this.writer.writeValueAsBytes(new ExportedNote(note,
+						tagIds.getOrDefault(note.getId(), Collections.emptyList()))));
+				output.write(NEWLINE);
+			}
+			output.flush();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Replaces {@code spring.mvc.async.request-timeout} for the export that it is
+	 * registered with, just before the export starts streaming.
+	 */
+	private static final class ExportTimeout implements CallableProcessingInterceptor {
+
+		private final long timeout;
+
+		private ExportTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+			((AsyncWebRequest) request).setTimeout(this.timeout);
+		}
+
+	}
+
+	static class ExportedNote {
+
+		private final NoteSummary note;
+
+		private final List<Long> tags;
+
+		ExportedNote(NoteSummary note, List<Long> tags) {
+			this.note = note;
+			this.tags = tags;
+		}
+
+		public long getId() {
+			return this.note.getId();
+		}
+
+		public String getTitle() {
+			return this.note.getTitle();
+		}
+
+		public String getBody() {
+			return this.note.getBody();
+		}
+
+		public List<Long> getTags() {
+			return this.tags;
+		}
+
+	}
+
+}
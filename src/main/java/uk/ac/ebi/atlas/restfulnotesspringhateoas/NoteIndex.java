@@ -0,0 +1,264 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A Lucene index of the title and body of every note, kept on local disk. The index is
+ * rebuilt from the database on startup and then updated from {@link NoteSavedEvent} and
+ * {@link NoteDeletedEvent} once the transaction that changed a note has committed.
+ * <p>
+ * Changes are only committed to disk when the index is rebuilt or closed. Each commit
+ * records whether the index was closed cleanly, so an index that was left behind by a
+ * crash, and may be missing changes, is always rebuilt on startup.
+ */
+@Component
+class NoteIndex implements SmartInitializingSingleton, DisposableBean {
+
+	private static final String ID = "id";
+
+	private static final String TITLE = "title";
+
+	private static final String BODY = "body";
+
+	private static final Map<String, Float> BOOSTS = Map.of(TITLE, 2.0f, BODY, 1.0f);
+
+	private static final String CLOSED_CLEANLY = "closed-cleanly";
+
+	private final NoteRepository noteRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final RestNotesProperties.Search search;
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+
+	private final Path path;
+
+	private final Directory directory;
+
+	private final IndexWriter writer;
+
+	private final SearcherManager searcherManager;
+
+	private final boolean closedCleanly;
+
+	NoteIndex(NoteRepository noteRepository, PlatformTransactionManager transactionManager,
+			RestNotesProperties properties) throws IOException {
+		this.noteRepository = noteRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.search = properties.getSearch();
+		this.path = (this.search.getIndexDirectory() != null)
+				? Files.createDirectories(this.search.getIndexDirectory())
+				: Files.createTempDirectory("restnotes-index");
+		this.directory = FSDirectory.open(this.path);
+		this.writer = new IndexWriter(this.directory, new IndexWriterConfig(this.analyzer));
+		this.closedCleanly = isClosedCleanly(this.writer);
+		// Recorded before any change is made, so that a crash from now on is noticed
+		this.writer.setLiveCommitData(Map.of(CLOSED_CLEANLY, "false").entrySet());
+		this.writer.commit();
+		this.searcherManager = new SearcherManager(this.writer, null);
+	}
+
+	private static boolean isClosedCleanly(IndexWriter writer) {
+		Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+		if (commitData != null) {
+			for (Map.Entry<String, String> entry: commitData) {
+				if (CLOSED_CLEANLY.equals(entry.getKey())) {
+					return Boolean.parseBoolean(entry.getValue());
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (this.search.isRebuildOnStartup() || !this.closedCleanly || this.writer.getDocStats().numDocs == 0) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Replaces the contents of the index with the notes that are in the database.
+	 */
+	void rebuild() {
+		try {
+			this.writer.deleteAll();
+			this.transactionTemplate.executeWithoutResult((status) -> {
+				try (Stream<NoteSummary> notes = this.noteRepository.streamAll()) {
+					Iterator<NoteSummary> iterator = notes.iterator();
+					while (iterator.hasNext()) {
+						NoteSummary note = iterator.next();
+						this.writer.addDocument(document(note.getId(), note.getTitle(), note.getBody()));
+					}
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			this.writer.commit();
+			this.searcherManager.maybeRefreshBlocking();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteSaved(NoteSavedEvent event) throws IOException {
+		this.writer.updateDocument(idTerm(event.getId()), document(event.getId(), event.getTitle(), event.getBody()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteDeleted(NoteDeletedEvent event) throws IOException {
+		this.writer.deleteDocuments(idTerm(event.getId()));
+	}
+
+	/**
+	 * Returns the ids of the notes that match the given query, best match first.
+	 * @param query the query, in Lucene's classic query syntax, matched against the
+	 * title and body of each note
+	 * @param offset the number of matching notes to skip
+	 * @param limit the largest number of ids to return
+	 * @return the ids and the total number of matching notes
+	 */
+	Hits search(String query, int offset, int limit) {
+		Query parsed = parse(query);
+		try {
+			// Changes are applied to the writer as they are committed and only made visible
+			// to searchers when they are needed, rather than reopening a reader per change
+			this.searcherManager.maybeRefreshBlocking();
+			IndexSearcher searcher = this.searcherManager.acquire();
+			try {
+				TopDocs topDocs = searcher.search(parsed, offset + limit);
+				StoredFields storedFields = searcher.storedFields();
+				List<Long> ids = new ArrayList<>(limit);
+				for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+					ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+					ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID)));
+				}
+				return new Hits(ids, topDocs.totalHits.value);
+			}
+			finally {
+				this.searcherManager.release(searcher);
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private Query parse(String query) {
+		MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[] { TITLE, BODY }, this.analyzer,
+				BOOSTS);
+		try {
+			return parser.parse(query);
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException("The query '" + query + "' is invalid", ex);
+		}
+	}
+
+	private static Document document(long id, String title, String body) {
+		Document document = new Document();
+		document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+		if (title != null) {
+			document.add(new TextField(TITLE, title, Field.Store.NO));
+		}
+		if (body != null) {
+			document.add(new TextField(BODY, body, Field.Store.NO));
+		}
+		return document;
+	}
+
+	private static Term idTerm(long id) {
+		return new Term(ID, Long.toString(id));
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		try {
+			// Committed when the writer is closed
+			this.writer.setLiveCommitData(Map.of(CLOSED_CLEANLY, "true").entrySet());
+			IOUtils.close(this.searcherManager, this.writer, this.directory, this.analyzer);
+		}
+		finally {
+			if (this.search.getIndexDirectory() == null) {
+				IOUtils.rm(this.path);
+			}
+		}
+	}
+
+	static class Hits {
+
+		private final List<Long> ids;
+
+		private final long total;
+
+		Hits(List<Long> ids, long total) {
+			this.ids = ids;
+			this.total = total;
+		}
+
+		List<Long> getIds() {
+			return this.ids;
+		}
+
+		long getTotal() {
+			return this.total;
+		}
+
+	}
+
+}
@@ -34,12 +34,16 @@ class NoteInput {
 
 	private final List<URI> tagUris;
 
+	private final List<String> tagNames;
+
 	@JsonCreator
 	NoteInput(@JsonProperty("title") String title,
-			@JsonProperty("body") String body, @JsonProperty("tags") List<URI> tagUris) {
+			@JsonProperty("body") String body, @JsonProperty("tags") List<URI> tagUris,
+			@JsonProperty("tagNames") List<String> tagNames) {
 		this.title = title;
 		this.body = body;
 		this.tagUris = tagUris == null ? Collections.<URI>emptyList() : tagUris;
+		this.tagNames = tagNames == null ? Collections.<String>emptyList() : tagNames;
 	}
 
 	String getTitle() {
@@ -55,4 +59,9 @@ class NoteInput {
 		return this.tagUris;
 	}
 
+	@JsonProperty("tagNames")
+	List<String> getTagNames() {
+		return this.tagNames;
+	}
+
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * An append-only log of {@link PendingNote pending notes}, one JSON document per line,
+ * kept in a directory of numbered segment files. A note is only acknowledged once its
+ * line has been forced to disk, so notes that have not been written to the database
+ * when the application stops are read back when it next starts. Threads that append at
+ * the same time share a single force.
+ * <p>
+ * Notes are appended to the newest segment until it reaches the segment size, when a
+ * new segment is started. An older segment is deleted as soon as every note in it has
+ * been written to the database, and the newest segment is emptied whenever every note
+ * in it has been, so the journal stays small under steady load.
+ */
+class NoteJournal implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(NoteJournal.class);
+
+	private static final String SEGMENT_SUFFIX = ".journal";
+
+	private final Path directory;
+
+	private final long segmentSize;
+
+	private final ObjectMapper objectMapper;
+
+	private final Object syncMonitor = new Object();
+
+	private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+
+	private final Map<Long, Segment> segmentsByNote = new HashMap<>();
+
+	private Segment current;
+
+	private long appended;
+
+	private long synced;
+
+	NoteJournal(Path directory, long segmentSize, ObjectMapper objectMapper) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = segmentSize;
+		this.objectMapper = objectMapper;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			for (Path file: files) {
+				String name = file.getFileName().toString();
+				try {
+					long number = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+					this.segments.put(number, new Segment(number, file));
+				}
+				catch (NumberFormatException ex) {
+					logger.warn("Ignoring journal file '" + file + "'");
+				}
+			}
+		}
+		this.current = openSegment(this.segments.isEmpty() ? 1 : this.segments.lastKey() + 1);
+	}
+
+	/**
+	 * Reads the notes in the segments that were in the journal when it was opened, oldest
+	 * first, passing them to the consumer in chunks of at most the given size. A trailing
+	 * line that was only partly written before the application stopped is ignored; its
+	 * note was never acknowledged.
+	 */
+	void read(int chunkSize, Consumer<List<PendingNote>> consumer) throws IOException {
+		List<Segment> replayed;
+		synchronized (this) {
+			replayed = new ArrayList<>(this.segments.headMap(this.current.number).values());
+		}
+		for (Segment segment: replayed) {
+			List<PendingNote> chunk = new ArrayList<>(chunkSize);
+			try (BufferedReader reader = Files.newBufferedReader(segment.path, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isBlank()) {
+						continue;
+					}
+					try {
+						chunk.add(this.objectMapper.readValue(line, PendingNote.class));
+					}
+					catch (JsonProcessingException ex) {
+						logger.warn("Ignoring malformed journal entry '" + line + "'");
+						continue;
+					}
+					if (chunk.size() == chunkSize) {
+						replay(segment, chunk, consumer);
+						chunk = new ArrayList<>(chunkSize);
+					}
+				}
+			}
+			if (!chunk.isEmpty()) {
+				replay(segment, chunk, consumer);
+			}
+			synchronized (this) {
+				segment.complete = true;
+				deleteIfWritten(segment);
+			}
+		}
+	}
+
+	private void replay(Segment segment, List<PendingNote> chunk, Consumer<List<PendingNote>> consumer) {
+		synchronized (this) {
+			for (PendingNote note: chunk) {
+				this.segmentsByNote.put(note.getId(), segment);
+				segment.notes++;
+			}
+		}
+		consumer.accept(chunk);
+	}
+
+	/**
+	 * Appends a note to the journal and returns once it has been forced to disk.
+	 */
+	void append(PendingNote note) throws IOException {
+		byte[] json = this.objectMapper.writeValueAsBytes(note);
+		ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+		long end;
+		synchronized (this) {
+			if (this.current.position >= this.segmentSize) {
+				// Sealing forces the segment, so a sync that runs later only needs to
+				// force the new one
+				this.current.channel.force(false);
+				this.current.complete = true;
+				this.current = openSegment(this.current.number + 1);
+			}
+			while (line.hasRemaining()) {
+				this.current.position += this.current.channel.write(line, this.current.position);
+			}
+			this.current.notes++;
+			this.segmentsByNote.put(note.getId(), this.current);
+			this.appended += json.length + 1;
+			end = this.appended;
+		}
+		sync(end);
+	}
+
+	private void sync(long end) throws IOException {
+		synchronized (this.syncMonitor) {
+			if (this.synced >= end) {
+				return;
+			}
+			long appended;
+			FileChannel channel;
+			synchronized (this) {
+				appended = this.appended;
+				channel = this.current.channel;
+			}
+			try {
+				channel.force(false);
+			}
+			catch (ClosedChannelException ex) {
+				// The segment was sealed, and therefore forced, and has since been deleted
+			}
+			this.synced = appended;
+		}
+	}
+
+	/**
+	 * Records that notes from the journal have been written to the database, or have
+	 * been given up on.
+	 */
+	synchronized void written(Collection<Long> noteIds) throws IOException {
+		Set<Segment> touched = new HashSet<>();
+		for (Long noteId: noteIds) {
+			Segment segment = this.segmentsByNote.remove(noteId);
+			if (segment != null) {
+				segment.written++;
+				touched.add(segment);
+			}
+		}
+		for (Segment segment: touched) {
+			if (segment == this.current) {
+				if (segment.written == segment.notes) {
+					segment.channel.truncate(0);
+					segment.position = 0;
+					segment.notes = 0;
+					segment.written = 0;
+				}
+			}
+			else {
+				deleteIfWritten(segment);
+			}
+		}
+	}
+
+	private void deleteIfWritten(Segment segment) throws IOException {
+		if (segment.complete && segment.written == segment.notes && this.segments.remove(segment.number) != null) {
+			if (segment.channel != null) {
+				segment.channel.close();
+			}
+			Files.deleteIfExists(segment.path);
+		}
+	}
+
+	private Segment openSegment(long number) throws IOException {
+		Segment segment = new Segment(number, this.directory.resolve(String.format("%019d", number) + SEGMENT_SUFFIX));
+		segment.channel = FileChannel.open(segment.path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		this.segments.put(number, segment);
+		return segment;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		for (Segment segment: this.segments.values()) {
+			if (segment.channel != null) {
+				segment.channel.close();
+			}
+		}
+	}
+
+	private static final class Segment {
+
+		private final long number;
+
+		private final Path path;
+
+		private FileChannel channel;
+
+		private long position;
+
+		private int notes;
+
+		private int written;
+
+		private boolean complete;
+
+		private Segment(long number, Path path) {
+			this.number = number;
+			this.path = path;
+		}
+
+	}
+
+}
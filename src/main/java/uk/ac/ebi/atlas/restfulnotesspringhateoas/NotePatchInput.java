@@ -17,7 +17,6 @@
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import java.net.URI;
-import java.util.Collections;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -37,7 +36,7 @@ class NotePatchInput {
 			@JsonProperty("body") String body, @JsonProperty("tags") List<URI> tagUris) {
 		this.title = title;
 		this.body = body;
-		this.tagUris = tagUris == null ? Collections.<URI>emptyList() : tagUris;
+		this.tagUris = tagUris;
 	}
 	
 	String getTitle() {
@@ -48,6 +47,10 @@ class NotePatchInput {
 		return body;
 	}
 
+	/**
+	 * Returns the tags that replace the note's tags, or {@code null} if they are left
+	 * unchanged.
+	 */
 	@JsonProperty("tags")
 	List<URI> getTagUris() {
 		return this.tagUris;
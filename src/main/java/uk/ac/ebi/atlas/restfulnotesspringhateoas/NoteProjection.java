@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a note that a client asked for with the {@code fields} and {@code embed}
+ * request parameters. Notes are read without their body unless it is one of the fields,
+ * and their tags are only looked up when they are embedded.
+ */
+final class NoteProjection {
+
+	private static final NoteProjection DEFAULT = new NoteProjection(true, true, false);
+
+	private final boolean title;
+
+	private final boolean body;
+
+	private final boolean tags;
+
+	private NoteProjection(boolean title, boolean body, boolean tags) {
+		this.title = title;
+		this.body = body;
+		this.tags = tags;
+	}
+
+	static NoteProjection of(List<String> fields, List<String> embed) {
+		if (fields == null && embed == null) {
+			return DEFAULT;
+		}
+		boolean title = (fields == null);
+		boolean body = (fields == null);
+		if (fields != null) {
+			for (String field: fields) {
+				if ("title".equals(field)) {
+					title = true;
+				}
+				else if ("body".equals(field)) {
+					body = true;
+				}
+				else {
+					throw new IllegalArgumentException("The field '" + field + "' is invalid");
+				}
+			}
+		}
+		boolean tags = false;
+		if (embed != null) {
+			for (String relation: embed) {
+				if (!"tags".equals(relation)) {
+					throw new IllegalArgumentException("The embedded relation '" + relation + "' is invalid");
+				}
+				tags = true;
+			}
+		}
+		return new NoteProjection(title, body, tags);
+	}
+
+	boolean isDefault() {
+		return this == DEFAULT;
+	}
+
+	boolean includesBody() {
+		return this.body;
+	}
+
+	boolean embedsTags() {
+		return this.tags;
+	}
+
+	/**
+	 * Drops the title from notes when it was not asked for. The body is never read unless
+	 * it was asked for.
+	 */
+	NoteSummary apply(NoteSummary note) {
+		if (this.title) {
+			return note;
+		}
+		return new NoteSummary(note.getId(), note.getVersion(), null, note.getBody());
+	}
+
+	List<NoteSummary> apply(List<NoteSummary> notes) {
+		if (this.title) {
+			return notes;
+		}
+		List<NoteSummary> projected = new ArrayList<>(notes.size());
+		for (NoteSummary note: notes) {
+			projected.add(apply(note));
+		}
+		return projected;
+	}
+
+}
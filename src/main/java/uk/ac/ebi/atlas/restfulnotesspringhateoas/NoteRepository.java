@@ -18,13 +18,146 @@ package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repository for notes. Read endpoints use the {@link NoteSummary} methods, which run in
+ * read-only transactions and do not load entities; entities are only loaded to be
+ * changed. Summaries are created with explicit constructor expressions, as
+ * {@link NoteSummary} has more than one constructor. The header methods read summaries
+ * without selecting the body column. The modifying methods change many notes with a
+ * single statement and bypass the entity listeners, so callers are responsible for
+ * publishing the corresponding events.
+ */
 interface NoteRepository extends CrudRepository<Note, Long> {
 
 	Note findById(long id);
 
 	List<Note> findByTagsIn(Collection<Tag> tags);
-	
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Note n where n.id = :id")
+	NoteSummary findSummaryById(@Param("id") long id);
+
+	@Transactional(readOnly = true)
+	@Query("select n.version from Note n where n.id = :id")
+	Long findVersionById(@Param("id") long id);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Note n where n.id in :ids")
+	List<NoteSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Note n where n.id > :id order by n.id asc")
+	List<NoteSummary> findSummariesByIdGreaterThanOrderByIdAsc(@Param("id") long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Note n where n.id < :id order by n.id desc")
+	List<NoteSummary> findSummariesByIdLessThanOrderByIdDesc(@Param("id") long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Tag t join t.notes n where t.id = :tagId")
+	List<NoteSummary> findSummariesByTagId(@Param("tagId") long tagId);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title) "
+			+ "from Note n where n.id = :id")
+	NoteSummary findHeaderById(@Param("id") long id);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title) "
+			+ "from Note n where n.id in :ids")
+	List<NoteSummary> findHeadersByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title) "
+			+ "from Note n where n.id > :id order by n.id asc")
+	List<NoteSummary> findHeadersByIdGreaterThanOrderByIdAsc(@Param("id") long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title) "
+			+ "from Note n where n.id < :id order by n.id desc")
+	List<NoteSummary> findHeadersByIdLessThanOrderByIdDesc(@Param("id") long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title) "
+			+ "from Tag t join t.notes n where t.id = :tagId")
+	List<NoteSummary> findHeadersByTagId(@Param("tagId") long tagId);
+
+	/**
+	 * Reads every note in id order through a forward-only cursor. The stream must be
+	 * consumed and closed within a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteSummary(n.id, n.version, n.title, n.body) "
+			+ "from Note n order by n.id")
+	Stream<NoteSummary> streamAll();
+
+	@Query("select n.id from Note n where n.id in :ids")
+	List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("update Note n set n.title = coalesce(:title, n.title), n.body = coalesce(:body, n.body), "
+			+ "n.version = n.version + 1 where n.id in :ids")
+	int updateByIdIn(@Param("ids") Collection<Long> ids, @Param("title") String title,
+			@Param("body") String body);
+
+	@Modifying
+	@Query("delete from Note n where n.id in :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "note_tags"))
+	@Query(value = "delete from note_tags where notes_id in :ids", nativeQuery = true)
+	int deleteTagsByNoteIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "note_tags"))
+	@Query(value = "insert into note_tags (notes_id, tags_id) select n.id, t.id from note n cross join tag t "
+			+ "where n.id in :ids and t.id in :tagIds", nativeQuery = true)
+	int insertTagsByNoteIdIn(@Param("ids") Collection<Long> ids, @Param("tagIds") Collection<Long> tagIds);
+
+	@Query("select n.id as noteId, t.id as tagId from Note n join n.tags t where n.id in :noteIds")
+	List<NoteTagId> findTagIdsByNoteIdIn(@Param("noteIds") Collection<Long> noteIds);
+
+	/**
+	 * Reads the id of every note through a forward-only cursor. The stream must be
+	 * consumed and closed within a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+	@Query("select n.id from Note n")
+	Stream<Long> streamIds();
+
+	/**
+	 * Reads the ids of every note and tag that are associated with each other through a
+	 * forward-only cursor. The stream must be consumed and closed within a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+	@Query("select n.id as noteId, t.id as tagId from Note n join n.tags t")
+	Stream<NoteTagId> streamTagIds();
+
+	interface NoteTagId {
+
+		long getNoteId();
+
+		long getTagId();
+
+	}
+
 }
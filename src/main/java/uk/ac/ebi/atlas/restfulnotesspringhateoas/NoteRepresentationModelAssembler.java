@@ -16,48 +16,124 @@
 
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.core.Relation;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler.TagModel;
+
 @Component
-class NoteRepresentationModelAssembler extends RepresentationModelAssemblerSupport<Note, NoteRepresentationModelAssembler.NoteModel> {
+class NoteRepresentationModelAssembler extends RepresentationModelAssemblerSupport<NoteSummary, NoteRepresentationModelAssembler.NoteModel> {
 
-	NoteRepresentationModelAssembler() {
+	private final Timer modelTimer;
+
+	private final Timer collectionTimer;
+
+	NoteRepresentationModelAssembler(MeterRegistry meterRegistry) {
 		super(NotesController.class, NoteModel.class);
+		this.modelTimer = assemblyTimer(meterRegistry, "model");
+		this.collectionTimer = assemblyTimer(meterRegistry, "collection");
+	}
+
+	private static Timer assemblyTimer(MeterRegistry meterRegistry, String type) {
+		return Timer.builder("restnotes.assembly")
+			.description("Time taken to assemble note representation models")
+			.tag("resource", "note")
+			.tag("type", type)
+			.register(meterRegistry);
+	}
+
+	@Override
+	public NoteModel toModel(NoteSummary entity) {
+		return toModel(entity, null);
+	}
+
+	/**
+	 * Creates a model of the given note with the given tags embedded, or with no tags
+	 * embedded if {@code tags} is {@code null}.
+	 */
+	NoteModel toModel(NoteSummary entity, List<TagModel> tags) {
+		return this.modelTimer.record(() -> createModel(entity, tags));
 	}
 
 	@Override
-	public NoteModel toModel(Note entity) {
-		NoteModel noteModel = createModelWithId(entity.getId(), entity);
-		noteModel.add(linkTo(methodOn(NotesController.class).noteTags(entity.getId())).withRel("note-tags"));
+	public CollectionModel<NoteModel> toCollectionModel(Iterable<? extends NoteSummary> entities) {
+		return toCollectionModel(entities, null);
+	}
+
+	/**
+	 * Creates models of the given notes with the tags of each embedded, or with no tags
+	 * embedded if {@code tagsByNote} is {@code null}.
+	 */
+	CollectionModel<NoteModel> toCollectionModel(Iterable<? extends NoteSummary> entities,
+			Map<Long, List<TagModel>> tagsByNote) {
+		return this.collectionTimer.record(() -> {
+			List<NoteModel> models = new ArrayList<>();
+			for (NoteSummary entity: entities) {
+				models.add(createModel(entity, (tagsByNote != null) ? tagsByNote.get(entity.getId()) : null));
+			}
+			return CollectionModel.of(models);
+		});
+	}
+
+	private NoteModel createModel(NoteSummary entity, List<TagModel> tags) {
+		String noteUri = ControllerUris.of(NotesController.class) + "/" + entity.getId();
+		NoteModel noteModel = new NoteModel(entity, tags);
+		noteModel.add(Link.of(noteUri), Link.of(noteUri + "/tags", "note-tags"));
 		return noteModel;
 	}
 	
 	@Override
-	protected NoteModel instantiateModel(Note entity) {
+	protected NoteModel instantiateModel(NoteSummary entity) {
 		return new NoteModel(entity);
 	}
 
 	@Relation(collectionRelation = "notes", itemRelation = "note")
 	static class NoteModel extends RepresentationModel<NoteModel> {
 		
-		private final Note note;
+		private final String title;
+
+		private final String body;
 
-		NoteModel(Note note) {
-			this.note = note;
+		private final List<TagModel> tags;
+
+		NoteModel(NoteSummary note) {
+			this(note, null);
+		}
+
+		NoteModel(NoteSummary note, List<TagModel> tags) {
+			this.title = note.getTitle();
+			this.body = note.getBody();
+			this.tags = tags;
 		}
 		
+		@JsonInclude(JsonInclude.Include.NON_NULL)
 		public String getTitle() {
-			return this.note.getTitle();
+			return this.title;
 		}
 		
+		@JsonInclude(JsonInclude.Include.NON_NULL)
 		public String getBody() {
-			return this.note.getBody();
+			return this.body;
+		}
+
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		@JsonProperty("_embedded")
+		public Map<String, List<TagModel>> getEmbedded() {
+			return (this.tags != null) ? Map.of("tags", this.tags) : null;
 		}
 		
 	}
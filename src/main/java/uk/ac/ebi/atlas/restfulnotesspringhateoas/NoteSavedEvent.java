@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Published when a note has been inserted or updated. The event carries a copy of the
+ * note's state so that it can be consumed once the persistence context has gone.
+ */
+class NoteSavedEvent {
+
+	private final long id;
+
+	private final String title;
+
+	private final String body;
+
+	private final List<Long> tagIds;
+
+	private final boolean created;
+
+	NoteSavedEvent(Note note, boolean created) {
+		this.id = note.getId();
+		this.title = note.getTitle();
+		this.body = note.getBody();
+		this.tagIds = Hibernate.isInitialized(note.getTags()) ? tagIds(note.getTags()) : null;
+		this.created = created;
+	}
+
+	NoteSavedEvent(long id, String title, String body, List<Long> tagIds, boolean created) {
+		this.id = id;
+		this.title = title;
+		this.body = body;
+		this.tagIds = tagIds;
+		this.created = created;
+	}
+
+	private static List<Long> tagIds(List<Tag> tags) {
+		if (tags == null) {
+			return Collections.emptyList();
+		}
+		List<Long> tagIds = new ArrayList<>(tags.size());
+		for (Tag tag: tags) {
+			tagIds.add(tag.getId());
+		}
+		return tagIds;
+	}
+
+	long getId() {
+		return this.id;
+	}
+
+	String getTitle() {
+		return this.title;
+	}
+
+	String getBody() {
+		return this.body;
+	}
+
+	/**
+	 * Returns the ids of the note's tags, or {@code null} if the tags were not loaded
+	 * and therefore have not changed.
+	 */
+	List<Long> getTagIds() {
+		return this.tagIds;
+	}
+
+	/**
+	 * Returns whether the note was inserted rather than updated.
+	 */
+	boolean isCreated() {
+		return this.created;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteRepresentationModelAssembler.NoteModel;
+
+/**
+ * Searches the title and body of notes using the {@link NoteIndex}. Matching notes are
+ * returned best match first, a page at a time.
+ */
+@RestController
+@RequestMapping("/notes")
+class NoteSearchController {
+
+	private final NoteIndex noteIndex;
+
+	private final NoteRepository noteRepository;
+
+	private final EmbeddedTags embeddedTags;
+
+	private final NoteRepresentationModelAssembler noteAssembler;
+
+	private final RestNotesProperties.Paging paging;
+
+	NoteSearchController(NoteIndex noteIndex, NoteRepository noteRepository, EmbeddedTags embeddedTags,
+			NoteRepresentationModelAssembler noteAssembler, RestNotesProperties properties) {
+		this.noteIndex = noteIndex;
+		this.noteRepository = noteRepository;
+		this.embeddedTags = embeddedTags;
+		this.noteAssembler = noteAssembler;
+		this.paging = properties.getPaging();
+	}
+
+	@RequestMapping(value = "/search", method = RequestMethod.GET)
+	CollectionModel<NoteModel> search(@RequestParam("q") String query,
+			@RequestParam(name = "page", required = false) Integer page,
+			@RequestParam(name = "size", required = false) Integer size,
+			@RequestParam(name = "fields", required = false) List<String> fields,
+			@RequestParam(name = "embed", required = false) List<String> embed) {
+		int pageSize = this.paging.pageSize(size);
+		NoteProjection projection = NoteProjection.of(fields, embed);
+		int pageNumber = (page != null) ? page : 0;
+		long offset = (long) pageNumber * pageSize;
+		if (pageNumber < 0 || offset + pageSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The page '" + page + "' is invalid");
+		}
+		NoteIndex.Hits hits = this.noteIndex.search(query, (int) offset, pageSize);
+
+		Map<Long, NoteSummary> notesById = new HashMap<>();
+		for (NoteSummary note: projection.includesBody() ? this.noteRepository.findSummariesByIdIn(hits.getIds())
+				: this.noteRepository.findHeadersByIdIn(hits.getIds())) {
+			notesById.put(note.getId(), note);
+		}
+		List<NoteSummary> notes = new ArrayList<>(hits.getIds().size());
+		for (Long id: hits.getIds()) {
+			NoteSummary note = notesById.get(id);
+			if (note != null) {
+				notes.add(note);
+			}
+		}
+
+		CollectionModel<NoteModel> results = this.noteAssembler.toCollectionModel(projection.apply(notes),
+				projection.embedsTags() ? this.embeddedTags.of(notes) : null);
+		results.add(linkTo(methodOn(NoteSearchController.class).search(query, page, size, fields, embed))
+				.withSelfRel());
+		if (offset + pageSize < hits.getTotal()) {
+			results.add(linkTo(methodOn(NoteSearchController.class).search(query, pageNumber + 1, size, fields,
+					embed)).withRel(IanaLinkRelations.NEXT));
+		}
+		if (pageNumber > 0) {
+			results.add(linkTo(methodOn(NoteSearchController.class).search(query, pageNumber - 1, size, fields,
+					embed)).withRel(IanaLinkRelations.PREV));
+		}
+		return results;
+	}
+
+}
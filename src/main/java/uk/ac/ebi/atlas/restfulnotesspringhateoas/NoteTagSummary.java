@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+/**
+ * A {@link TagSummary} together with the id of one of the notes that have the tag, read
+ * when the tags of several notes are looked up at once.
+ */
+public class NoteTagSummary extends TagSummary {
+
+	private final long noteId;
+
+	public NoteTagSummary(long noteId, long id, long version, String name) {
+		super(id, version, name);
+		this.noteId = noteId;
+	}
+
+	public long getNoteId() {
+		return this.noteId;
+	}
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Accepts new notes without waiting for them to be written to the database. An
+ * accepted note is given an id from a {@link NoteIdAllocator}, recorded in the
+ * {@link NoteJournal} and queued. A small, fixed number of writer threads take notes
+ * from the queue and insert them in JDBC batches, so a burst of new notes uses no more
+ * database connections than there are writers. The queue is bounded and notes that
+ * find it full are rejected with {@code 503 Service Unavailable}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "restnotes.write-behind", name = "enabled")
+class NoteWriteBehind implements SmartInitializingSingleton, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(NoteWriteBehind.class);
+
+	private static final long RETRY_INTERVAL_MILLIS = 1000;
+
+	private final NoteRepository noteRepository;
+
+	private final TagResolver tagResolver;
+
+	private final Validator validator;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final NoteIdAllocator idAllocator;
+
+	private final NoteJournal journal;
+
+	private final BlockingQueue<PendingNote> queue = new LinkedBlockingQueue<>();
+
+	private final Map<Long, PendingNote> pending = new ConcurrentHashMap<>();
+
+	private final Cache<Long, String> failures = Caffeine.newBuilder().maximumSize(10000).build();
+
+	private final long maxWaitMillis;
+
+	private final int batchSize;
+
+	private final int chunkSize;
+
+	private final List<Thread> writers = new ArrayList<>();
+
+	private final Semaphore permits;
+
+	private int replayed;
+
+	private volatile boolean running = true;
+
+	NoteWriteBehind(NoteRepository noteRepository, TagResolver tagResolver, Validator validator,
+			JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ApplicationEventPublisher eventPublisher, EntityManagerFactory entityManagerFactory,
+			ObjectMapper objectMapper, RestNotesProperties properties) throws IOException {
+		RestNotesProperties.WriteBehind writeBehind = properties.getWriteBehind();
+		this.noteRepository = noteRepository;
+		this.tagResolver = tagResolver;
+		this.validator = validator;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.idAllocator = new NoteIdAllocator(jdbcTemplate, entityManagerFactory,
+				properties.getIds().getAllocationSize());
+		this.journal = new NoteJournal(writeBehind.getJournal(), writeBehind.getSegmentSize().toBytes(),
+				objectMapper);
+		this.maxWaitMillis = writeBehind.getMaxWait().toMillis();
+		this.batchSize = writeBehind.getBatchSize();
+		this.chunkSize = properties.getBatch().getChunkSize();
+		this.permits = new Semaphore(writeBehind.getCapacity());
+		for (int i = 0; i < writeBehind.getWriters(); i++) {
+			Thread writer = new Thread(this::write, "note-writer-" + i);
+			writer.setDaemon(true);
+			this.writers.add(writer);
+		}
+	}
+
+	/**
+	 * Starts the writers, then queues the notes that were in the journal when the
+	 * application started. The journal is read in chunks, and replayed notes take up
+	 * room in the queue like any other, so a journal with more notes than the queue's
+	 * capacity delays startup until the writers have made room for the rest. Notes that
+	 * were written to the database before the application stopped, but not yet removed
+	 * from the journal, are skipped.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (Thread writer: this.writers) {
+			writer.start();
+		}
+		try {
+			this.journal.read(this.chunkSize, this::replay);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		if (this.replayed > 0) {
+			logger.info("Replayed " + this.replayed + " journaled notes");
+		}
+	}
+
+	private void replay(List<PendingNote> journaled) {
+		Set<Long> ids = new HashSet<>();
+		for (PendingNote note: journaled) {
+			ids.add(note.getId());
+		}
+		Set<Long> written = new HashSet<>(this.noteRepository.findIdsByIdIn(ids));
+		try {
+			this.journal.written(written);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		for (PendingNote note: journaled) {
+			if (!written.contains(note.getId())) {
+				this.permits.acquireUninterruptibly();
+				this.pending.put(note.getId(), note);
+				this.queue.add(note);
+				this.replayed++;
+			}
+		}
+	}
+
+	/**
+	 * Validates a new note, records it in the journal and queues it to be written,
+	 * returning its id.
+	 */
+	long submit(NoteInput input) {
+		Set<ConstraintViolation<NoteInput>> violations = this.validator.validate(input);
+		if (!violations.isEmpty()) {
+			throw new IllegalArgumentException(violations.stream()
+					.map((violation) -> "The " + violation.getPropertyPath() + " " + violation.getMessage())
+					.collect(Collectors.joining(", ")));
+		}
+		List<Long> tagIds = new ArrayList<>(input.getTagUris().size());
+		for (Tag tag: this.tagResolver.getTags(input.getTagUris(), input.getTagNames())) {
+			tagIds.add(tag.getId());
+		}
+		if (!tryAcquire()) {
+			throw new ServiceBusyException();
+		}
+		PendingNote note;
+		try {
+			note = new PendingNote(this.idAllocator.allocate(), input.getTitle(), input.getBody(), tagIds);
+			this.journal.append(note);
+		}
+		catch (IOException | RuntimeException ex) {
+			this.permits.release();
+			throw (ex instanceof IOException) ? new UncheckedIOException((IOException) ex) : (RuntimeException) ex;
+		}
+		this.pending.put(note.getId(), note);
+		this.queue.add(note);
+		return note.getId();
+	}
+
+	private boolean tryAcquire() {
+		try {
+			return this.permits.tryAcquire(this.maxWaitMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	boolean isPending(long id) {
+		return this.pending.containsKey(id);
+	}
+
+	/**
+	 * Returns why a note could not be written to the database, or {@code null} if it has
+	 * not failed.
+	 */
+	String getFailure(long id) {
+		return this.failures.getIfPresent(id);
+	}
+
+	private void write() {
+		List<PendingNote> batch = new ArrayList<>(this.batchSize);
+		while (this.running) {
+			try {
+				PendingNote first = this.queue.poll(RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				this.queue.drainTo(batch, this.batchSize - 1);
+				writeBatch(batch);
+				batch.clear();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void writeBatch(List<PendingNote> batch) throws InterruptedException {
+		while (true) {
+			try {
+				insert(batch);
+				written(batch);
+				return;
+			}
+			catch (DataIntegrityViolationException ex) {
+				// Retry notes one at a time so that only those that cannot be written,
+				// for example because one of their tags has been deleted, fail
+				for (PendingNote note: batch) {
+					writeOne(note);
+				}
+				return;
+			}
+			catch (DataAccessException ex) {
+				logger.warn("Failed to write " + batch.size() + " notes, retrying", ex);
+				Thread.sleep(RETRY_INTERVAL_MILLIS);
+			}
+		}
+	}
+
+	private void writeOne(PendingNote note) throws InterruptedException {
+		while (true) {
+			try {
+				insert(List.of(note));
+				written(List.of(note));
+				return;
+			}
+			catch (DataIntegrityViolationException ex) {
+				this.failures.put(note.getId(), "The note could not be stored: " + ex.getMostSpecificCause().getMessage());
+				release(List.of(note));
+				return;
+			}
+			catch (DataAccessException ex) {
+				logger.warn("Failed to write note " + note.getId() + ", retrying", ex);
+				Thread.sleep(RETRY_INTERVAL_MILLIS);
+			}
+		}
+	}
+
+	private void insert(List<PendingNote> notes) {
+		List<Object[]> noteRows = new ArrayList<>(notes.size());
+		List<Object[]> tagRows = new ArrayList<>();
+		for (PendingNote note: notes) {
+			noteRows.add(new Object[] { note.getId(), 0L, note.getTitle(), note.getBody() });
+			for (Long tagId: note.getTagIds()) {
+				tagRows.add(new Object[] { note.getId(), tagId });
+			}
+		}
+		this.transactionTemplate.executeWithoutResult((status) -> {
+			this.jdbcTemplate.batchUpdate("insert into note (id, version, title, body) values (?, ?, ?, ?)", noteRows);
+			if (!tagRows.isEmpty()) {
+				this.jdbcTemplate.batchUpdate("insert into note_tags (notes_id, tags_id) values (?, ?)", tagRows);
+			}
+		});
+	}
+
+	private void written(List<PendingNote> notes) {
+		for (PendingNote note: notes) {
+			this.eventPublisher.publishEvent(
+					new NoteSavedEvent(note.getId(), note.getTitle(), note.getBody(), note.getTagIds(), true));
+		}
+		release(notes);
+	}
+
+	private void release(List<PendingNote> notes) {
+		for (PendingNote note: notes) {
+			this.pending.remove(note.getId());
+		}
+		this.permits.release(notes.size());
+		try {
+			this.journal.written(notes.stream().map(PendingNote::getId).toList());
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to update the note journal", ex);
+		}
+	}
+
+	/**
+	 * Stops the writers. Notes that have not been written yet stay in the journal and
+	 * are written when the application next starts.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		this.running = false;
+		for (Thread writer: this.writers) {
+			writer.interrupt();
+		}
+		for (Thread writer: this.writers) {
+			writer.join();
+		}
+		this.journal.close();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Reports whether a note that was accepted by the {@link NoteWriteBehind} has been
+ * written to the database.
+ */
+@RestController
+@RequestMapping("/notes")
+@ConditionalOnProperty(prefix = "restnotes.write-behind", name = "enabled")
+class NoteWriteStatusController {
+
+	private final NoteWriteBehind writeBehind;
+
+	private final NoteRepository noteRepository;
+
+	NoteWriteStatusController(NoteWriteBehind writeBehind, NoteRepository noteRepository) {
+		this.writeBehind = writeBehind;
+		this.noteRepository = noteRepository;
+	}
+
+	@RequestMapping(value = "/{id}/status", method = RequestMethod.GET)
+	WriteStatusModel status(@PathVariable("id") long id) {
+		WriteStatusModel status;
+		if (this.writeBehind.isPending(id)) {
+			status = new WriteStatusModel("pending", null);
+		}
+		else if (this.writeBehind.getFailure(id) != null) {
+			status = new WriteStatusModel("failed", this.writeBehind.getFailure(id));
+		}
+		else if (this.noteRepository.existsById(id)) {
+			status = new WriteStatusModel("written", null);
+		}
+		else {
+			throw new ResourceDoesNotExistException();
+		}
+		status.add(linkTo(methodOn(NoteWriteStatusController.class).status(id)).withSelfRel());
+		status.add(Link.of(ControllerUris.of(NotesController.class) + "/" + id, "note"));
+		return status;
+	}
+
+	static class WriteStatusModel extends RepresentationModel<WriteStatusModel> {
+
+		private final String status;
+
+		private final String message;
+
+		WriteStatusModel(String status, String message) {
+			this.status = status;
+			this.message = message;
+		}
+
+		public String getStatus() {
+			return this.status;
+		}
+
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		public String getMessage() {
+			return this.message;
+		}
+
+	}
+
+}
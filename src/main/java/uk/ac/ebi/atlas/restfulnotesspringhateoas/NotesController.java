@@ -17,21 +17,29 @@
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
-import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.util.UriTemplate;
+import org.springframework.web.context.request.WebRequest;
 
 import uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteRepresentationModelAssembler.NoteModel;
 import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler.TagModel;
@@ -40,67 +48,201 @@ import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler
 @RequestMapping("/notes")
 class NotesController {
 
-	private static final UriTemplate TAG_URI_TEMPLATE = new UriTemplate("/tags/{id}");
-
 	private final NoteRepository noteRepository;
 
 	private final TagRepository tagRepository;
+
+	private final TagResolver tagResolver;
+
+	private final TagPostings tagPostings;
+
+	private final EmbeddedTags embeddedTags;
+
+	private final RepresentationCache representationCache;
+
+	private final NoteWriteBehind writeBehind;
 	
 	private final NoteRepresentationModelAssembler noteAssembler;
 	
 	private final TagRepresentationModelAssembler tagAssembler;
 
-	NotesController(NoteRepository noteRepository, TagRepository tagRepository,
-			NoteRepresentationModelAssembler noteAssembler, TagRepresentationModelAssembler tagAssembler) {
+	private final RestNotesProperties.Paging paging;
+
+	NotesController(NoteRepository noteRepository, TagRepository tagRepository, TagResolver tagResolver,
+			TagPostings tagPostings, EmbeddedTags embeddedTags, RepresentationCache representationCache,
+			ObjectProvider<NoteWriteBehind> writeBehind,
+			NoteRepresentationModelAssembler noteAssembler, TagRepresentationModelAssembler tagAssembler,
+			RestNotesProperties properties) {
 		this.noteRepository = noteRepository;
 		this.tagRepository = tagRepository;
+		this.tagResolver = tagResolver;
+		this.tagPostings = tagPostings;
+		this.embeddedTags = embeddedTags;
+		this.representationCache = representationCache;
+		this.writeBehind = writeBehind.getIfAvailable();
 		this.noteAssembler = noteAssembler;
 		this.tagAssembler = tagAssembler;
+		this.paging = properties.getPaging();
 	}
 
 	@RequestMapping(method = RequestMethod.GET)
-	CollectionModel<NoteModel> all() {
-		return noteAssembler.toCollectionModel(this.noteRepository.findAll());
+	CollectionModel<NoteModel> all(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "before", required = false) Long before,
+			@RequestParam(name = "size", required = false) Integer size,
+			@RequestParam(name = "tags", required = false) List<Long> tags,
+			@RequestParam(name = "match", required = false) String match,
+			@RequestParam(name = "exclude", required = false) List<Long> exclude,
+			@RequestParam(name = "fields", required = false) List<String> fields,
+			@RequestParam(name = "embed", required = false) List<String> embed) {
+		int pageSize = this.paging.pageSize(size);
+		NoteProjection projection = NoteProjection.of(fields, embed);
+		KeysetSlice<NoteSummary> slice = (tags != null || exclude != null)
+				? findTaggedNotes(after, before, pageSize, tags, TagPostings.Match.of(match), exclude, projection)
+				: findNotes(after, before, pageSize, projection);
+
+		CollectionModel<NoteModel> notes = this.noteAssembler.toCollectionModel(projection.apply(slice.getContent()),
+				projection.embedsTags() ? this.embeddedTags.of(slice.getContent()) : null);
+		notes.add(linkTo(methodOn(NotesController.class).all(after, before, size, tags, match, exclude, fields,
+				embed)).withSelfRel());
+		if (slice.hasNext()) {
+			notes.add(linkTo(methodOn(NotesController.class).all(slice.getLast().getId(), null, size, tags, match,
+					exclude, fields, embed)).withRel(IanaLinkRelations.NEXT));
+		}
+		if (slice.hasPrevious()) {
+			notes.add(linkTo(methodOn(NotesController.class).all(null, slice.getFirst().getId(), size, tags, match,
+					exclude, fields, embed)).withRel(IanaLinkRelations.PREV));
+		}
+		return notes;
+	}
+
+	private KeysetSlice<NoteSummary> findNotes(Long after, Long before, int pageSize, NoteProjection projection) {
+		Limit limit = Limit.of(pageSize + 1);
+		if (before != null) {
+			return KeysetSlice.before(projection.includesBody()
+					? this.noteRepository.findSummariesByIdLessThanOrderByIdDesc(before, limit)
+					: this.noteRepository.findHeadersByIdLessThanOrderByIdDesc(before, limit), pageSize);
+		}
+		long from = (after != null) ? after : Long.MIN_VALUE;
+		return KeysetSlice.after(projection.includesBody()
+				? this.noteRepository.findSummariesByIdGreaterThanOrderByIdAsc(from, limit)
+				: this.noteRepository.findHeadersByIdGreaterThanOrderByIdAsc(from, limit), pageSize, after != null);
+	}
+
+	private KeysetSlice<NoteSummary> findTaggedNotes(Long after, Long before, int pageSize, List<Long> tags,
+			TagPostings.Match match, List<Long> exclude, NoteProjection projection) {
+		RoaringBitmap noteIds = this.tagPostings.select(tags, match, exclude);
+		KeysetSlice<Long> slice = (before != null)
+				? KeysetSlice.before(TagPostings.before(noteIds, before, pageSize + 1), pageSize)
+				: KeysetSlice.after(TagPostings.after(noteIds, (after != null) ? after : Long.MIN_VALUE,
+						pageSize + 1), pageSize, after != null);
+
+		Map<Long, NoteSummary> notesById = new HashMap<>();
+		for (NoteSummary note: projection.includesBody()
+				? this.noteRepository.findSummariesByIdIn(slice.getContent())
+				: this.noteRepository.findHeadersByIdIn(slice.getContent())) {
+			notesById.put(note.getId(), note);
+		}
+		List<NoteSummary> notes = new ArrayList<>(slice.getContent().size());
+		for (Long id: slice.getContent()) {
+			NoteSummary note = notesById.get(id);
+			if (note != null) {
+				notes.add(note);
+			}
+		}
+		return slice.map(notes);
 	}
 
-	@ResponseStatus(HttpStatus.CREATED)
 	@RequestMapping(method = RequestMethod.POST)
-	HttpHeaders create(@RequestBody NoteInput noteInput) {
+	ResponseEntity<Void> create(@RequestBody NoteInput noteInput) {
+		if (this.writeBehind != null) {
+			long id = this.writeBehind.submit(noteInput);
+			return ResponseEntity.accepted()
+				.location(linkTo(NotesController.class).slash(id).toUri())
+				.header(HttpHeaders.LINK, Link.of(linkTo(NotesController.class).slash(id).slash("status").toUri()
+					.toString(), "status").toString())
+				.build();
+		}
 		Note note = new Note();
 		note.setTitle(noteInput.getTitle());
 		note.setBody(noteInput.getBody());
-		note.setTags(getTags(noteInput.getTagUris()));
+		note.setTags(this.tagResolver.getTags(noteInput.getTagUris(), noteInput.getTagNames()));
 
 		this.noteRepository.save(note);
 
-		HttpHeaders httpHeaders = new HttpHeaders();
-		httpHeaders
-				.setLocation(linkTo(NotesController.class).slash(note.getId()).toUri());
-
-		return httpHeaders;
+		return ResponseEntity.created(linkTo(NotesController.class).slash(note.getId()).toUri()).build();
 	}
 
 	@RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
 	void delete(@PathVariable("id") long id) {
 		this.noteRepository.deleteById(id);
+		this.representationCache.evict(RepresentationCache.Type.NOTE, id);
 	}
 
 	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
-	NoteModel note(@PathVariable("id") long id) {
-		return this.noteAssembler.toModel(findNoteById(id));
+	ResponseEntity<?> note(@PathVariable("id") long id,
+			@RequestParam(name = "fields", required = false) List<String> fields,
+			@RequestParam(name = "embed", required = false) List<String> embed, WebRequest request) {
+		NoteProjection projection = NoteProjection.of(fields, embed);
+		if (projection.isDefault() && RepresentationCache.isAcceptable(request)) {
+			return cachedNote(id, request);
+		}
+		NoteSummary note = projection.includesBody() ? this.noteRepository.findSummaryById(id)
+				: this.noteRepository.findHeaderById(id);
+		if (note == null) {
+			throw new ResourceDoesNotExistException();
+		}
+		if (projection.embedsTags()) {
+			// Changes to embedded tags do not change the note's version so no entity tag
+			// can be derived from it
+			List<TagModel> tags = this.embeddedTags.of(List.of(note)).get(id);
+			return ResponseEntity.ok().body(this.noteAssembler.toModel(projection.apply(note), tags));
+		}
+		String eTag = EntityTags.of(note.getVersion());
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag).body(this.noteAssembler.toModel(projection.apply(note)));
+	}
+
+	private ResponseEntity<byte[]> cachedNote(long id, WebRequest request) {
+		Long version = this.noteRepository.findVersionById(id);
+		if (version == null) {
+			throw new ResourceDoesNotExistException();
+		}
+		String eTag = EntityTags.of(version);
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		RepresentationCache.Representation representation = this.representationCache
+			.get(RepresentationCache.Type.NOTE, id, eTag);
+		if (representation == null) {
+			NoteSummary note = this.noteRepository.findSummaryById(id);
+			if (note == null) {
+				throw new ResourceDoesNotExistException();
+			}
+			eTag = EntityTags.of(note.getVersion());
+			representation = this.representationCache.put(RepresentationCache.Type.NOTE, id, eTag,
+					this.noteAssembler.toModel(note));
+		}
+		return representation.toResponse(eTag, request);
 	}
 
 	@RequestMapping(value = "/{id}/tags", method = RequestMethod.GET)
 	CollectionModel<TagModel> noteTags(@PathVariable("id") long id) {
-		return this.tagAssembler.toCollectionModel(findNoteById(id).getTags());
+		List<TagSummary> tags = this.tagRepository.findSummariesByNoteId(id);
+		if (tags.isEmpty() && !this.noteRepository.existsById(id)) {
+			throw new ResourceDoesNotExistException();
+		}
+		return this.tagAssembler.toCollectionModel(tags);
 	}
 
 	@RequestMapping(value = "/{id}", method = RequestMethod.PATCH)
-	@ResponseStatus(HttpStatus.NO_CONTENT)
-	void updateNote(@PathVariable("id") long id, @RequestBody NotePatchInput noteInput) {
+	ResponseEntity<Void> updateNote(@PathVariable("id") long id, @RequestBody NotePatchInput noteInput,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		Note note = findNoteById(id);
+		EntityTags.checkIfMatch(ifMatch, note.getVersion());
 		if (noteInput.getTagUris() != null) {
-			note.setTags(getTags(noteInput.getTagUris()));
+			note.setTags(this.tagResolver.getTags(noteInput.getTagUris()));
 		}
 		if (noteInput.getTitle() != null) {
 			note.setTitle(noteInput.getTitle());
@@ -108,7 +250,9 @@ class NotesController {
 		if (noteInput.getBody() != null) {
 			note.setBody(noteInput.getBody());
 		}
-		this.noteRepository.save(note);
+		note = this.noteRepository.save(note);
+		this.representationCache.evict(RepresentationCache.Type.NOTE, id);
+		return ResponseEntity.noContent().eTag(EntityTags.of(note.getVersion())).build();
 	}
 
 	private Note findNoteById(long id) {
@@ -118,28 +262,4 @@ class NotesController {
 		}
 		return note;
 	}
-
-	private List<Tag> getTags(List<URI> tagLocations) {
-		List<Tag> tags = new ArrayList<>(tagLocations.size());
-		for (URI tagLocation: tagLocations) {
-			Tag tag = this.tagRepository.findById(extractTagId(tagLocation));
-			if (tag == null) {
-				throw new IllegalArgumentException("The tag '" + tagLocation
-										+ "' does not exist");
-			}
-			tags.add(tag);
-		}
-		return tags;
-	}
-
-	private long extractTagId(URI tagLocation) {
-		try {
-			String idString = TAG_URI_TEMPLATE.match(tagLocation.toASCIIString()).get(
-					"id");
-			return Long.valueOf(idString);
-		}
-		catch (RuntimeException ex) {
-			throw new IllegalArgumentException("The tag '" + tagLocation + "' is invalid");
-		}
-	}
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A note that has been accepted, and given an id, but may not have been written to the
+ * database yet. Pending notes are what the {@link NoteJournal} records.
+ */
+class PendingNote {
+
+	private final long id;
+
+	private final String title;
+
+	private final String body;
+
+	private final List<Long> tagIds;
+
+	@JsonCreator
+	PendingNote(@JsonProperty("id") long id, @JsonProperty("title") String title,
+			@JsonProperty("body") String body, @JsonProperty("tags") List<Long> tagIds) {
+		this.id = id;
+		this.title = title;
+		this.body = body;
+		this.tagIds = (tagIds != null) ? tagIds : List.of();
+	}
+
+	@JsonProperty("id")
+	long getId() {
+		return this.id;
+	}
+
+	@JsonProperty("title")
+	String getTitle() {
+		return this.title;
+	}
+
+	@JsonProperty("body")
+	String getBody() {
+		return this.body;
+	}
+
+	@JsonProperty("tags")
+	List<Long> getTagIds() {
+		return this.tagIds;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * A sequence generator whose allocation size is configured with
+ * {@code restnotes.ids.allocation-size} rather than fixed in the mapping. With an
+ * allocation size greater than one, each sequence call reserves a block of ids that are
+ * then handed out in memory by Hibernate's pooled optimizer, so inserts do not wait for
+ * the sequence and can be batched.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+	static final String ALLOCATION_SIZE = "restnotes.ids.allocation-size";
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+			throws MappingException {
+		Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+			.getSettings()
+			.get(ALLOCATION_SIZE);
+		if (allocationSize != null) {
+			parameters.setProperty(INCREMENT_PARAM, allocationSize.toString());
+		}
+		super.configure(type, parameters, serviceRegistry);
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * A bounded cache of the serialized HAL representations of individual notes and tags.
+ * Each entry records the state of the resource it was rendered from, such as its
+ * version, and is only used while that state is current, so a frequently read resource
+ * is assembled and serialized once per change rather than once per request. Large
+ * representations are also kept gzip-compressed for clients that accept it.
+ */
+@Component
+class RepresentationCache {
+
+	enum Type {
+
+		NOTE, TAG
+
+	}
+
+	private final Cache<Key, Representation> cache;
+
+	private final ObjectMapper objectMapper;
+
+	private final boolean enabled;
+
+	private final long compressionThreshold;
+
+	RepresentationCache(ObjectMapper objectMapper, LinkRelationProvider linkRelationProvider,
+			MeterRegistry meterRegistry, RestNotesProperties properties) {
+		RestNotesProperties.RepresentationCache cacheProperties = properties.getRepresentationCache();
+		this.cache = Caffeine.newBuilder()
+			.maximumWeight(cacheProperties.getMaxSize().toBytes())
+			.<Key, Representation>weigher((key, representation) -> representation.size())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "restnotes.representations");
+		this.objectMapper = objectMapper.copy()
+			.registerModule(new Jackson2HalModule())
+			.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(linkRelationProvider,
+					CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		this.enabled = cacheProperties.isEnabled();
+		this.compressionThreshold = cacheProperties.getCompressionThreshold().toBytes();
+	}
+
+	/**
+	 * Returns the cached representation of a resource if it was rendered from the given
+	 * state for the current request's base URI, or {@code null}.
+	 */
+	Representation get(Type type, long id, String state) {
+		if (!this.enabled) {
+			return null;
+		}
+		Representation representation = this.cache.getIfPresent(new Key(type, id));
+		if (representation == null || !representation.state.equals(state)
+				|| !representation.baseUri.equals(baseUri(type))) {
+			return null;
+		}
+		return representation;
+	}
+
+	/**
+	 * Serializes the representation of a resource in the given state and caches it.
+	 */
+	Representation put(Type type, long id, String state, RepresentationModel<?> model) {
+		byte[] bytes;
+		try {
+			bytes = this.objectMapper.writeValueAsBytes(model);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("The representation of " + model + " could not be serialized", ex);
+		}
+		Representation representation = new Representation(baseUri(type), state, bytes,
+				(bytes.length >= this.compressionThreshold) ? gzip(bytes) : null);
+		if (this.enabled) {
+			this.cache.put(new Key(type, id), representation);
+		}
+		return representation;
+	}
+
+	void evict(Type type, long id) {
+		this.cache.invalidate(new Key(type, id));
+	}
+
+	private static String baseUri(Type type) {
+		return ControllerUris.of((type == Type.NOTE) ? NotesController.class : TagsController.class);
+	}
+
+	private static byte[] gzip(byte[] bytes) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 2);
+		try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+			output.write(bytes);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * Returns whether a request's {@code Accept} header allows a representation to be
+	 * written from the cache as HAL or as plain JSON.
+	 */
+	static boolean isAcceptable(WebRequest request) {
+		return negotiate(request) != null;
+	}
+
+	private static MediaType negotiate(WebRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (!StringUtils.hasText(accept)) {
+			return MediaTypes.HAL_JSON;
+		}
+		List<MediaType> acceptable;
+		try {
+			acceptable = MediaType.parseMediaTypes(accept);
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		for (MediaType candidate: List.of(MediaTypes.HAL_JSON, MediaType.APPLICATION_JSON)) {
+			for (MediaType mediaType: acceptable) {
+				if (mediaType.includes(candidate)) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether a request's {@code Accept-Encoding} headers give gzip, or failing
+	 * that {@code *}, a quality greater than zero.
+	 */
+	private static boolean acceptsGzip(WebRequest request) {
+		String[] acceptEncodings = request.getHeaderValues(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncodings == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String acceptEncoding: acceptEncodings) {
+			for (String coding: StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+				String[] parameters = StringUtils.tokenizeToStringArray(coding, ";");
+				if (parameters.length == 0) {
+					continue;
+				}
+				String name = parameters[0].toLowerCase(Locale.ROOT);
+				double quality = quality(parameters);
+				if (name.equals("gzip") || name.equals("x-gzip")) {
+					gzip = quality;
+				}
+				else if (name.equals("*")) {
+					any = quality;
+				}
+			}
+		}
+		return (gzip != null) ? gzip > 0 : (any != null && any > 0);
+	}
+
+	private static double quality(String[] parameters) {
+		for (int i = 1; i < parameters.length; i++) {
+			String parameter = parameters[i].toLowerCase(Locale.ROOT);
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2).trim());
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private static final class Key {
+
+		private final Type type;
+
+		private final long id;
+
+		private Key(Type type, long id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return this.type == other.type && this.id == other.id;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.type, this.id);
+		}
+
+	}
+
+	static final class Representation {
+
+		private final String baseUri;
+
+		private final String state;
+
+		private final byte[] bytes;
+
+		private final byte[] gzipped;
+
+		private Representation(String baseUri, String state, byte[] bytes, byte[] gzipped) {
+			this.baseUri = baseUri;
+			this.state = state;
+			this.bytes = bytes;
+			this.gzipped = gzipped;
+		}
+
+		private int size() {
+			return this.bytes.length + ((this.gzipped != null) ? this.gzipped.length : 0)
+					+ this.baseUri.length() + this.state.length();
+		}
+
+		/**
+		 * Creates a response that writes this representation as is, compressed if the
+		 * request accepts gzip and a compressed copy was kept.
+		 */
+		ResponseEntity<byte[]> toResponse(String eTag, WebRequest request) {
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).contentType(negotiate(request));
+			if (this.gzipped == null) {
+				return response.body(this.bytes);
+			}
+			response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+			if (acceptsGzip(request)) {
+				return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(this.gzipped);
+			}
+			return response.body(this.bytes);
+		}
+
+	}
+
+}
@@ -18,6 +18,8 @@ package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import java.io.IOException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -41,4 +43,29 @@ class RestNotesControllerAdvice {
 				"The resource '" + request.getRequestURI() + "' does not exist");
 	}
 
+	@ExceptionHandler({ PreconditionFailedException.class, OptimisticLockingFailureException.class })
+	void handlePreconditionFailed(RuntimeException ex, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.PRECONDITION_FAILED.value(),
+				"The resource '" + request.getRequestURI() + "' has been modified");
+	}
+
+	@ExceptionHandler(TagNameInUseException.class)
+	void handleTagNameInUseException(TagNameInUseException ex, HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.CONFLICT.value(), "The tag name is already in use");
+	}
+
+	@ExceptionHandler(ChangesExpiredException.class)
+	void handleChangesExpiredException(ChangesExpiredException ex, HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.GONE.value(),
+				"Some of the requested changes are no longer available. Read the resources again and follow "
+						+ "the changes from the latest one");
+	}
+
+	@ExceptionHandler(ServiceBusyException.class)
+	void handleServiceBusyException(ServiceBusyException ex, HttpServletResponse response) throws IOException {
+		response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+		response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "The service is busy");
+	}
+
 }
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties("restnotes")
+class RestNotesProperties {
+
+	private final Paging paging = new Paging();
+
+	private final Ids ids = new Ids();
+
+	private final Batch batch = new Batch();
+
+	private final Export export = new Export();
+
+	private final Search search = new Search();
+
+	private final Concurrency concurrency = new Concurrency();
+
+	private final RepresentationCache representationCache = new RepresentationCache();
+
+	private final Changes changes = new Changes();
+
+	private final WriteBehind writeBehind = new WriteBehind();
+
+	public Paging getPaging() {
+		return this.paging;
+	}
+
+	public Ids getIds() {
+		return this.ids;
+	}
+
+	public Batch getBatch() {
+		return this.batch;
+	}
+
+	public Export getExport() {
+		return this.export;
+	}
+
+	public Search getSearch() {
+		return this.search;
+	}
+
+	public Concurrency getConcurrency() {
+		return this.concurrency;
+	}
+
+	public RepresentationCache getRepresentationCache() {
+		return this.representationCache;
+	}
+
+	public Changes getChanges() {
+		return this.changes;
+	}
+
+	public WriteBehind getWriteBehind() {
+		return this.writeBehind;
+	}
+
+	static class Paging {
+
+		/**
+		 * Number of items returned by a collection resource when no size is requested.
+		 */
+		private int defaultSize = 20;
+
+		/**
+		 * Largest number of items a client may request in a single page.
+		 */
+		private int maxSize = 100;
+
+		public int getDefaultSize() {
+			return this.defaultSize;
+		}
+
+		public void setDefaultSize(int defaultSize) {
+			this.defaultSize = defaultSize;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		int pageSize(Integer requested) {
+			if (requested == null) {
+				return Math.min(this.defaultSize, this.maxSize);
+			}
+			if (requested < 1) {
+				throw new IllegalArgumentException("The page size '" + requested + "' is invalid");
+			}
+			return Math.min(requested, this.maxSize);
+		}
+
+	}
+
+	static class Ids {
+
+		/**
+		 * Number of ids that each call to the note or tag sequence reserves. Must match
+		 * the increment of the sequences.
+		 */
+		private int allocationSize = 50;
+
+		public int getAllocationSize() {
+			return this.allocationSize;
+		}
+
+		public void setAllocationSize(int allocationSize) {
+			this.allocationSize = allocationSize;
+		}
+
+	}
+
+	static class Batch {
+
+		/**
+		 * Number of notes from a batch, bulk update or bulk delete that are changed in each
+		 * transaction.
+		 */
+		private int chunkSize = 500;
+
+		public int getChunkSize() {
+			return this.chunkSize;
+		}
+
+		public void setChunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+	}
+
+	static class Export {
+
+		/**
+		 * Number of exported notes after which their tags are looked up and the output is
+		 * flushed.
+		 */
+		private int chunkSize = 500;
+
+		/**
+		 * Time an export may take before it is abandoned. Other asynchronous requests
+		 * use spring.mvc.async.request-timeout.
+		 */
+		private Duration timeout = Duration.ofMinutes(30);
+
+		public int getChunkSize() {
+			return this.chunkSize;
+		}
+
+		public void setChunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+	}
+
+	static class Search {
+
+		/**
+		 * Directory in which the full-text index of notes is kept. When not set, a
+		 * temporary directory is used and removed on shutdown.
+		 */
+		private Path indexDirectory;
+
+		/**
+		 * Whether the full-text index is rebuilt from the database on startup. An empty
+		 * index, or one that was not closed cleanly, is always rebuilt.
+		 */
+		private boolean rebuildOnStartup = true;
+
+		public Path getIndexDirectory() {
+			return this.indexDirectory;
+		}
+
+		public void setIndexDirectory(Path indexDirectory) {
+			this.indexDirectory = indexDirectory;
+		}
+
+		public boolean isRebuildOnStartup() {
+			return this.rebuildOnStartup;
+		}
+
+		public void setRebuildOnStartup(boolean rebuildOnStartup) {
+			this.rebuildOnStartup = rebuildOnStartup;
+		}
+
+	}
+
+	static class Concurrency {
+
+		/**
+		 * Largest number of requests handled at the same time when requests run on
+		 * virtual threads. Should be a small multiple of the connection pool size.
+		 */
+		private int maxRequests = 200;
+
+		/**
+		 * How long a request waits to be handled before it is rejected as the service is
+		 * busy.
+		 */
+		private Duration maxWait = Duration.ofSeconds(5);
+
+		public int getMaxRequests() {
+			return this.maxRequests;
+		}
+
+		public void setMaxRequests(int maxRequests) {
+			this.maxRequests = maxRequests;
+		}
+
+		public Duration getMaxWait() {
+			return this.maxWait;
+		}
+
+		public void setMaxWait(Duration maxWait) {
+			this.maxWait = maxWait;
+		}
+
+	}
+
+	static class RepresentationCache {
+
+		/**
+		 * Whether the serialized representations of notes and tags are cached.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Total size of the cached representations, including compressed copies.
+		 */
+		private DataSize maxSize = DataSize.ofMegabytes(32);
+
+		/**
+		 * Size from which a gzip-compressed copy of a representation is also cached.
+		 */
+		private DataSize compressionThreshold = DataSize.ofKilobytes(2);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public DataSize getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public DataSize getCompressionThreshold() {
+			return this.compressionThreshold;
+		}
+
+		public void setCompressionThreshold(DataSize compressionThreshold) {
+			this.compressionThreshold = compressionThreshold;
+		}
+
+	}
+
+	static class Changes {
+
+		/**
+		 * Number of the most recent changes to notes and tags that are kept for clients
+		 * that follow changes.
+		 */
+		private int capacity = 10000;
+
+		/**
+		 * Number of changes a client following changes may fall behind before its stream
+		 * is completed. The client can reconnect with the id of the last event it saw.
+		 */
+		private int subscriberBuffer = 1000;
+
+		/**
+		 * Time after which a stream of changes is completed. The client can reconnect
+		 * with the id of the last event it saw.
+		 */
+		private Duration streamTimeout = Duration.ofMinutes(30);
+
+		/**
+		 * Interval at which a comment is sent to streams that have had no changes, so
+		 * that closed connections are noticed.
+		 */
+		private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+		public int getCapacity() {
+			return this.capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public int getSubscriberBuffer() {
+			return this.subscriberBuffer;
+		}
+
+		public void setSubscriberBuffer(int subscriberBuffer) {
+			this.subscriberBuffer = subscriberBuffer;
+		}
+
+		public Duration getStreamTimeout() {
+			return this.streamTimeout;
+		}
+
+		public void setStreamTimeout(Duration streamTimeout) {
+			this.streamTimeout = streamTimeout;
+		}
+
+		public Duration getHeartbeatInterval() {
+			return this.heartbeatInterval;
+		}
+
+		public void setHeartbeatInterval(Duration heartbeatInterval) {
+			this.heartbeatInterval = heartbeatInterval;
+		}
+
+	}
+
+	static class WriteBehind {
+
+		/**
+		 * Whether created notes are journaled and written to the database in the
+		 * background rather than before the response is sent.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Directory in which notes are journaled until they have been written to the
+		 * database.
+		 */
+		private Path journal = Path.of("notes-journal");
+
+		/**
+		 * Size after which a journal segment is closed and a new one started. A closed
+		 * segment is deleted once all of its notes have been written.
+		 */
+		private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+		/**
+		 * Largest number of notes that may wait to be written to the database. Further
+		 * notes are rejected until some have been written.
+		 */
+		private int capacity = 10000;
+
+		/**
+		 * How long a note waits for room in the queue before it is rejected.
+		 */
+		private Duration maxWait = Duration.ofSeconds(1);
+
+		/**
+		 * Number of threads, and therefore database connections, that write notes.
+		 */
+		private int writers = 2;
+
+		/**
+		 * Largest number of notes written in each transaction.
+		 */
+		private int batchSize = 500;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getJournal() {
+			return this.journal;
+		}
+
+		public void setJournal(Path journal) {
+			this.journal = journal;
+		}
+
+		public DataSize getSegmentSize() {
+			return this.segmentSize;
+		}
+
+		public void setSegmentSize(DataSize segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		public int getCapacity() {
+			return this.capacity;
+		}
+
+		public void setCapacity(int capacity) {
+			this.capacity = capacity;
+		}
+
+		public Duration getMaxWait() {
+			return this.maxWait;
+		}
+
+		public void setMaxWait(Duration maxWait) {
+			this.maxWait = maxWait;
+		}
+
+		public int getWriters() {
+			return this.writers;
+		}
+
+		public void setWriters(int writers) {
+			this.writers = writers;
+		}
+
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+	}
+
+}
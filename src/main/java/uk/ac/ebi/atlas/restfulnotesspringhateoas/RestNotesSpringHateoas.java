@@ -2,8 +2,10 @@ package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RestNotesSpringHateoas {
 
     public static void main(String[] args) {
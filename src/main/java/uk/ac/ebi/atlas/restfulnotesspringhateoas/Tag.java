@@ -18,19 +18,36 @@ package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
+@EntityListeners(TagEntityListener.class)
 public class Tag {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+	@GenericGenerator(name = "tag_seq", type = PooledSequenceGenerator.class,
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "tag_seq"))
 	private long id;
 
+	@Version
+	private long version;
+
 	private String name;
 
 	@ManyToMany(mappedBy = "tags")
@@ -44,6 +61,14 @@ public class Tag {
 		this.id = id;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	public String getName() {
 		return name;
 	}
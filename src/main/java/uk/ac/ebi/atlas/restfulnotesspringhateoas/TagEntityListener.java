@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Turns the persistence lifecycle of a {@link Tag} into application events, in the same
+ * way as {@link NoteEntityListener} does for notes.
+ */
+class TagEntityListener {
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	TagEntityListener(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
+	@PostPersist
+	void tagCreated(Tag tag) {
+		this.eventPublisher.publishEvent(new TagSavedEvent(tag.getId(), true));
+	}
+
+	@PostUpdate
+	void tagUpdated(Tag tag) {
+		this.eventPublisher.publishEvent(new TagSavedEvent(tag.getId(), false));
+	}
+
+	@PostRemove
+	void tagRemoved(Tag tag) {
+		this.eventPublisher.publishEvent(new TagDeletedEvent(tag.getId()));
+	}
+
+}
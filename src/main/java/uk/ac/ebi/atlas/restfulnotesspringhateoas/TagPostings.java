@@ -0,0 +1,487 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Holds, for each tag, a compressed bitmap of the ids of the notes that carry it, so that
+ * notes can be selected by any combination of tags without querying the database. The
+ * bitmaps are built from the database on startup and then updated from
+ * {@link NoteSavedEvent}, {@link NoteDeletedEvent} and {@link TagDeletedEvent} once the
+ * transaction that changed a note or deleted a tag has committed.
+ * <p>
+ * The number of notes that carry each tag is the cardinality of its bitmap. Tags are also
+ * kept ranked by that number, so that the most used tags can be listed without counting.
+ * <p>
+ * The ids of each tagged note's tags are kept as well, in a sorted array, so that a
+ * change to a note only touches the bitmaps of the tags it had and has.
+ * <p>
+ * Note ids are stored as ints and must therefore be no greater than
+ * {@link Integer#MAX_VALUE}. The note sequence stops at that value, so such ids are
+ * never generated. Should one be loaded, the rebuild fails, and should a note with one
+ * be changed, the change is logged and ignored.
+ */
+@Component
+class TagPostings implements SmartInitializingSingleton {
+
+	private static final Log logger = LogFactory.getLog(TagPostings.class);
+
+	private static final long[] NO_TAGS = new long[0];
+
+	private final NoteRepository noteRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<Long, RoaringBitmap> notesByTag = new HashMap<>();
+
+	private final Map<Integer, long[]> tagsByNote = new HashMap<>();
+
+	private final RoaringBitmap notes = new RoaringBitmap();
+
+	private final NavigableSet<TagCount> ranking = new TreeSet<>();
+
+	TagPostings(NoteRepository noteRepository, PlatformTransactionManager transactionManager) {
+		this.noteRepository = noteRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		rebuild();
+	}
+
+	/**
+	 * Replaces the contents of the bitmaps with the associations that are in the database.
+	 */
+	void rebuild() {
+		RoaringBitmap notes = new RoaringBitmap();
+		Map<Long, RoaringBitmap> notesByTag = new HashMap<>();
+		Map<Integer, long[]> tagsByNote = new HashMap<>();
+		this.transactionTemplate.executeWithoutResult((status) -> {
+			try (Stream<Long> noteIds = this.noteRepository.streamIds()) {
+				noteIds.forEach((noteId) -> notes.add(noteIndex(noteId)));
+			}
+			try (Stream<NoteRepository.NoteTagId> noteTagIds = this.noteRepository.streamTagIds()) {
+				noteTagIds.forEach((noteTagId) -> {
+					int note = noteIndex(noteTagId.getNoteId());
+					notesByTag.computeIfAbsent(noteTagId.getTagId(), (tagId) -> new RoaringBitmap()).add(note);
+					tagsByNote.merge(note, new long[] { noteTagId.getTagId() }, TagPostings::concat);
+				});
+			}
+		});
+		tagsByNote.values().forEach(Arrays::sort);
+		notes.runOptimize();
+		notesByTag.values().forEach(RoaringBitmap::runOptimize);
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			this.notes.clear();
+			this.notes.or(notes);
+			this.notesByTag.clear();
+			this.notesByTag.putAll(notesByTag);
+			this.tagsByNote.clear();
+			this.tagsByNote.putAll(tagsByNote);
+			this.ranking.clear();
+			notesByTag.forEach((tagId, tagged) -> this.ranking.add(new TagCount(tagId, tagged.getCardinality())));
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteSaved(NoteSavedEvent event) {
+		if (!isIndexable(event.getId())) {
+			return;
+		}
+		int note = (int) event.getId();
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			this.notes.add(note);
+			if (event.getTagIds() != null) {
+				long[] tagIds = event.getTagIds().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+				long[] previousTagIds = (tagIds.length == 0) ? this.tagsByNote.remove(note)
+						: this.tagsByNote.put(note, tagIds);
+				for (long tagId: (previousTagIds != null) ? previousTagIds : NO_TAGS) {
+					if (Arrays.binarySearch(tagIds, tagId) < 0) {
+						removeNote(tagId, note);
+					}
+				}
+				for (long tagId: tagIds) {
+					addNote(tagId, note);
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void noteDeleted(NoteDeletedEvent event) {
+		if (!isIndexable(event.getId())) {
+			return;
+		}
+		int note = (int) event.getId();
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			this.notes.remove(note);
+			long[] tagIds = this.tagsByNote.remove(note);
+			for (long tagId: (tagIds != null) ? tagIds : NO_TAGS) {
+				removeNote(tagId, note);
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void tagDeleted(TagDeletedEvent event) {
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			RoaringBitmap tagged = this.notesByTag.remove(event.getId());
+			if (tagged != null) {
+				this.ranking.remove(new TagCount(event.getId(), tagged.getCardinality()));
+				for (int note: tagged) {
+					this.tagsByNote.computeIfPresent(note, (noteId, tagIds) -> without(tagIds, event.getId()));
+				}
+			}
+		}
+		finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void addNote(long tagId, int note) {
+		RoaringBitmap tagged = this.notesByTag.computeIfAbsent(tagId, (id) -> new RoaringBitmap());
+		int count = tagged.getCardinality();
+		if (tagged.checkedAdd(note)) {
+			rerank(tagId, count, count + 1);
+		}
+	}
+
+	private void removeNote(long tagId, int note) {
+		RoaringBitmap tagged = this.notesByTag.get(tagId);
+		if (tagged == null) {
+			return;
+		}
+		int count = tagged.getCardinality();
+		if (tagged.checkedRemove(note)) {
+			rerank(tagId, count, count - 1);
+		}
+	}
+
+	private void rerank(long tagId, int previousCount, int count) {
+		this.ranking.remove(new TagCount(tagId, previousCount));
+		if (count > 0) {
+			this.ranking.add(new TagCount(tagId, count));
+		}
+	}
+
+	/**
+	 * Returns the number of notes that carry the given tag.
+	 */
+	int count(long tagId) {
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			RoaringBitmap tagged = this.notesByTag.get(tagId);
+			return (tagged != null) ? tagged.getCardinality() : 0;
+		}
+		finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} of the tags that are carried by the most notes, most
+	 * used first. Tags that no note carries are not included.
+	 */
+	List<TagCount> top(int limit) {
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			List<TagCount> top = new ArrayList<>(Math.min(limit, this.ranking.size()));
+			for (TagCount tagCount: this.ranking) {
+				if (top.size() == limit) {
+					break;
+				}
+				top.add(tagCount);
+			}
+			return top;
+		}
+		finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of the notes that match the given tags, less those of the notes
+	 * that carry any of the excluded tags.
+	 * @param tagIds the ids of the tags to match, or {@code null} to start from every note
+	 * @param match how the notes must match {@code tagIds}
+	 * @param excludedTagIds the ids of tags whose notes are excluded, or {@code null}
+	 * @return a bitmap of note ids that is owned by the caller
+	 */
+	RoaringBitmap select(Collection<Long> tagIds, Match match, Collection<Long> excludedTagIds) {
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			RoaringBitmap selected = (tagIds != null) ? match(tagIds, match) : this.notes.clone();
+			if (excludedTagIds != null && !excludedTagIds.isEmpty()) {
+				selected.andNot(union(excludedTagIds));
+			}
+			return selected;
+		}
+		finally {
+			readLock.unlock();
+		}
+	}
+
+	private RoaringBitmap match(Collection<Long> tagIds, Match match) {
+		switch (match) {
+			case ALL:
+				return intersection(tagIds);
+			case ANY:
+				return union(tagIds);
+			default:
+				return RoaringBitmap.andNot(this.notes, union(tagIds));
+		}
+	}
+
+	private RoaringBitmap intersection(Collection<Long> tagIds) {
+		List<RoaringBitmap> bitmaps = new ArrayList<>(tagIds.size());
+		for (Long tagId: tagIds) {
+			RoaringBitmap tagged = this.notesByTag.get(tagId);
+			if (tagged == null) {
+				return new RoaringBitmap();
+			}
+			bitmaps.add(tagged);
+		}
+		if (bitmaps.isEmpty()) {
+			return this.notes.clone();
+		}
+		// Starting from the rarest tag keeps every intermediate result as small as possible
+		bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+		RoaringBitmap intersection = bitmaps.get(0).clone();
+		for (int i = 1; i < bitmaps.size() && !intersection.isEmpty(); i++) {
+			intersection.and(bitmaps.get(i));
+		}
+		return intersection;
+	}
+
+	private RoaringBitmap union(Collection<Long> tagIds) {
+		List<RoaringBitmap> bitmaps = new ArrayList<>(tagIds.size());
+		for (Long tagId: tagIds) {
+			RoaringBitmap tagged = this.notesByTag.get(tagId);
+			if (tagged != null) {
+				bitmaps.add(tagged);
+			}
+		}
+		return RoaringBitmap.or(bitmaps.iterator());
+	}
+
+	/**
+	 * Returns, in ascending order, up to {@code limit} of the ids in the bitmap that are
+	 * greater than {@code after}.
+	 */
+	static List<Long> after(RoaringBitmap noteIds, long after, int limit) {
+		int cardinality = noteIds.getCardinality();
+		int start = (after < 0) ? 0 : (after >= Integer.MAX_VALUE) ? cardinality
+				: (int) noteIds.rankLong((int) after);
+		int end = (int) Math.min((long) start + limit, cardinality);
+		List<Long> ids = new ArrayList<>(end - start);
+		for (int i = start; i < end; i++) {
+			ids.add((long) noteIds.select(i));
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns, in descending order, up to {@code limit} of the ids in the bitmap that are
+	 * less than {@code before}.
+	 */
+	static List<Long> before(RoaringBitmap noteIds, long before, int limit) {
+		int cardinality = noteIds.getCardinality();
+		int end = (before <= 0) ? 0 : (before > Integer.MAX_VALUE) ? cardinality
+				: (int) noteIds.rankLong((int) (before - 1));
+		int start = Math.max(end - limit, 0);
+		List<Long> ids = new ArrayList<>(end - start);
+		for (int i = end - 1; i >= start; i--) {
+			ids.add((long) noteIds.select(i));
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns the given sorted tag ids less the given one, or {@code null} if none are
+	 * left.
+	 */
+	private static long[] without(long[] tagIds, long tagId) {
+		int index = Arrays.binarySearch(tagIds, tagId);
+		if (index < 0) {
+			return tagIds;
+		}
+		if (tagIds.length == 1) {
+			return null;
+		}
+		long[] remaining = new long[tagIds.length - 1];
+		System.arraycopy(tagIds, 0, remaining, 0, index);
+		System.arraycopy(tagIds, index + 1, remaining, index, remaining.length - index);
+		return remaining;
+	}
+
+	private static long[] concat(long[] tagIds, long[] more) {
+		long[] concatenated = Arrays.copyOf(tagIds, tagIds.length + more.length);
+		System.arraycopy(more, 0, concatenated, tagIds.length, more.length);
+		return concatenated;
+	}
+
+	/**
+	 * Returns whether a note id can be stored, logging an error if not. Event listeners
+	 * run after the transaction has committed, where an exception would be lost.
+	 */
+	private static boolean isIndexable(long noteId) {
+		if (noteId < 0 || noteId > Integer.MAX_VALUE) {
+			logger.error("Note " + noteId + " cannot be indexed by tag as its id is not between 0 and "
+					+ Integer.MAX_VALUE + ". Tag filters and counts will not reflect changes to it");
+			return false;
+		}
+		return true;
+	}
+
+	private static int noteIndex(long noteId) {
+		if (noteId < 0 || noteId > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Note " + noteId + " cannot be indexed by tag as its id is not between 0 and "
+					+ Integer.MAX_VALUE);
+		}
+		return (int) noteId;
+	}
+
+	/**
+	 * The number of notes that carry a tag, ordered by that number, largest first, and
+	 * then by tag id.
+	 */
+	static final class TagCount implements Comparable<TagCount> {
+
+		private final long tagId;
+
+		private final int count;
+
+		TagCount(long tagId, int count) {
+			this.tagId = tagId;
+			this.count = count;
+		}
+
+		long getTagId() {
+			return this.tagId;
+		}
+
+		int getCount() {
+			return this.count;
+		}
+
+		@Override
+		public int compareTo(TagCount other) {
+			int byCount = Integer.compare(other.count, this.count);
+			return (byCount != 0) ? byCount : Long.compare(this.tagId, other.tagId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TagCount)) {
+				return false;
+			}
+			TagCount other = (TagCount) obj;
+			return this.tagId == other.tagId && this.count == other.count;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.tagId, this.count);
+		}
+
+	}
+
+	/**
+	 * How notes are matched against a set of tags.
+	 */
+	enum Match {
+
+		/**
+		 * Notes that carry every one of the tags.
+		 */
+		ALL,
+
+		/**
+		 * Notes that carry at least one of the tags.
+		 */
+		ANY,
+
+		/**
+		 * Notes that carry none of the tags.
+		 */
+		NONE;
+
+		static Match of(String match) {
+			if (match == null) {
+				return ALL;
+			}
+			try {
+				return valueOf(match.toUpperCase(Locale.ROOT));
+			}
+			catch (IllegalArgumentException ex) {
+				throw new IllegalArgumentException("The match '" + match + "' is invalid");
+			}
+		}
+
+	}
+
+}
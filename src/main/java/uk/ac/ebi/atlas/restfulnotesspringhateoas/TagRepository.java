@@ -16,10 +16,75 @@
 
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
+/**
+ * Repository for tags. Read endpoints use the {@link TagSummary} methods, which run in
+ * read-only transactions and do not load entities; entities are only loaded to be
+ * changed. The modifying methods bypass the entity listeners, so callers are responsible
+ * for publishing the corresponding events.
+ */
 interface TagRepository extends CrudRepository<Tag, Long> {
 
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Tag findById(long id);
 
+	@Override
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	Iterable<Tag> findAllById(Iterable<Long> ids);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	Tag findByName(String name);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Tag> findByNameIn(Collection<String> names);
+
+	@Transactional(readOnly = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	TagSummary findSummaryById(long id);
+
+	@Transactional(readOnly = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<TagSummary> findSummariesByIdIn(Collection<Long> ids);
+
+	@Transactional(readOnly = true)
+	List<TagSummary> findSummariesByNameInOrderByIdAsc(Collection<String> names);
+
+	@Transactional(readOnly = true)
+	List<TagSummary> findSummariesByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	List<TagSummary> findSummariesByIdLessThanOrderByIdDesc(long id, Limit limit);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.TagSummary(t.id, t.version, t.name) "
+			+ "from Note n join n.tags t where n.id = :noteId")
+	List<TagSummary> findSummariesByNoteId(@Param("noteId") long noteId);
+
+	@Transactional(readOnly = true)
+	@Query("select new uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteTagSummary(n.id, t.id, t.version, t.name) "
+			+ "from Note n join n.tags t where n.id in :noteIds")
+	List<NoteTagSummary> findSummariesByNoteIdIn(@Param("noteIds") Collection<Long> noteIds);
+
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "note_tags"))
+	@Query(value = "delete from note_tags where tags_id = :id", nativeQuery = true)
+	int deleteNoteTagsByTagId(@Param("id") long id);
+
+	@Modifying
+	@Query("delete from Tag t where t.id = :id")
+	int deleteTagById(@Param("id") long id);
+
 }
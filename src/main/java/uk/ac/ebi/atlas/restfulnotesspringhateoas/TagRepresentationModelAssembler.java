@@ -16,45 +16,89 @@
 
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.core.Relation;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Component
-class TagRepresentationModelAssembler extends RepresentationModelAssemblerSupport<Tag, TagRepresentationModelAssembler.TagModel> {
+class TagRepresentationModelAssembler extends RepresentationModelAssemblerSupport<TagSummary, TagRepresentationModelAssembler.TagModel> {
+
+	private final TagPostings tagPostings;
+
+	private final Timer modelTimer;
+
+	private final Timer collectionTimer;
 
-	TagRepresentationModelAssembler() {
+	TagRepresentationModelAssembler(MeterRegistry meterRegistry, TagPostings tagPostings) {
 		super(TagsController.class, TagModel.class);
+		this.tagPostings = tagPostings;
+		this.modelTimer = assemblyTimer(meterRegistry, "model");
+		this.collectionTimer = assemblyTimer(meterRegistry, "collection");
+	}
+
+	private static Timer assemblyTimer(MeterRegistry meterRegistry, String type) {
+		return Timer.builder("restnotes.assembly")
+			.description("Time taken to assemble tag representation models")
+			.tag("resource", "tag")
+			.tag("type", type)
+			.register(meterRegistry);
+	}
+
+	@Override
+	public TagModel toModel(TagSummary entity) {
+		return this.modelTimer.record(() -> createModel(entity));
 	}
 
 	@Override
-	public TagModel toModel(Tag entity) {
-		TagModel model = new TagModel(entity);
-		model.add(linkTo(methodOn(TagsController.class).tag(entity.getId())).withSelfRel(),
-			linkTo(methodOn(TagsController.class).tagNotes(entity.getId())).withRel("tagged-notes"));
+	public CollectionModel<TagModel> toCollectionModel(Iterable<? extends TagSummary> entities) {
+		return this.collectionTimer.record(() -> {
+			List<TagModel> models = new ArrayList<>();
+			for (TagSummary entity: entities) {
+				models.add(createModel(entity));
+			}
+			return CollectionModel.of(models);
+		});
+	}
+
+	private TagModel createModel(TagSummary entity) {
+		String tagUri = ControllerUris.of(TagsController.class) + "/" + entity.getId();
+		TagModel model = new TagModel(entity, this.tagPostings.count(entity.getId()));
+		model.add(Link.of(tagUri), Link.of(tagUri + "/notes", "tagged-notes"));
 		return model;
 	}
 	
 	@Override
-	protected TagModel instantiateModel(Tag entity) {
-		return new TagModel(entity);
+	protected TagModel instantiateModel(TagSummary entity) {
+		return new TagModel(entity, this.tagPostings.count(entity.getId()));
 	}
 
 	@Relation(collectionRelation = "tags", itemRelation = "tag")
 	static class TagModel extends RepresentationModel<TagModel> {
 		
-		private final Tag tag;
+		private final String name;
+
+		private final int noteCount;
 		
-		TagModel(Tag tag) {
-			this.tag = tag;
+		TagModel(TagSummary tag, int noteCount) {
+			this.name = tag.getName();
+			this.noteCount = noteCount;
 		}
 		
 		public String getName() {
-			return this.tag.getName();
+			return this.name;
+		}
+
+		public int getNoteCount() {
+			return this.noteCount;
 		}
 		
 	}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriTemplate;
+
+@Component
+class TagResolver {
+
+	private static final UriTemplate TAG_URI_TEMPLATE = new UriTemplate("/tags/{id}");
+
+	private final TagRepository tagRepository;
+
+	TagResolver(TagRepository tagRepository) {
+		this.tagRepository = tagRepository;
+	}
+
+	List<Tag> getTags(List<URI> tagLocations) {
+		Set<Long> tagIds = new HashSet<>();
+		for (URI tagLocation: tagLocations) {
+			tagIds.add(extractTagId(tagLocation));
+		}
+		return getTags(tagLocations, findTags(tagIds));
+	}
+
+	/**
+	 * Returns the tags identified by either their URIs or their names, looking up each
+	 * kind in a single query.
+	 */
+	List<Tag> getTags(List<URI> tagLocations, List<String> tagNames) {
+		if (tagNames.isEmpty()) {
+			return getTags(tagLocations);
+		}
+		Set<Long> tagIds = new HashSet<>();
+		for (URI tagLocation: tagLocations) {
+			tagIds.add(extractTagId(tagLocation));
+		}
+		return getTags(tagLocations, tagNames, findTags(tagIds), findTagsByName(tagNames));
+	}
+
+	List<Tag> getTags(List<URI> tagLocations, List<String> tagNames, Map<Long, Tag> tagsById,
+			Map<String, Tag> tagsByName) {
+		Set<Tag> tags = new LinkedHashSet<>(getTags(tagLocations, tagsById));
+		Set<String> missing = new LinkedHashSet<>();
+		for (String tagName: tagNames) {
+			Tag tag = tagsByName.get(tagName);
+			if (tag == null) {
+				missing.add(tagName);
+			}
+			else {
+				tags.add(tag);
+			}
+		}
+		if (missing.size() == 1) {
+			throw new IllegalArgumentException("The tag named '" + missing.iterator().next()
+									+ "' does not exist");
+		}
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException("The tags named " + missing.stream()
+					.map((tagName) -> "'" + tagName + "'")
+					.collect(Collectors.joining(", ")) + " do not exist");
+		}
+		return new ArrayList<>(tags);
+	}
+
+	List<Tag> getTags(List<URI> tagLocations, Map<Long, Tag> tagsById) {
+		List<Tag> tags = new ArrayList<>(tagLocations.size());
+		Set<URI> missing = new LinkedHashSet<>();
+		for (URI tagLocation: tagLocations) {
+			Tag tag = tagsById.get(extractTagId(tagLocation));
+			if (tag == null) {
+				missing.add(tagLocation);
+			}
+			else {
+				tags.add(tag);
+			}
+		}
+		if (missing.size() == 1) {
+			throw new IllegalArgumentException("The tag '" + missing.iterator().next()
+									+ "' does not exist");
+		}
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException("The tags " + missing.stream()
+					.map((tagLocation) -> "'" + tagLocation + "'")
+					.collect(Collectors.joining(", ")) + " do not exist");
+		}
+		return tags;
+	}
+
+	Map<Long, Tag> findTags(Collection<Long> tagIds) {
+		Map<Long, Tag> tagsById = new HashMap<>();
+		if (!tagIds.isEmpty()) {
+			for (Tag tag: this.tagRepository.findAllById(tagIds)) {
+				tagsById.put(tag.getId(), tag);
+			}
+		}
+		return tagsById;
+	}
+
+	Map<String, Tag> findTagsByName(Collection<String> tagNames) {
+		Map<String, Tag> tagsByName = new HashMap<>();
+		if (!tagNames.isEmpty()) {
+			for (Tag tag: this.tagRepository.findByNameIn(tagNames)) {
+				tagsByName.put(tag.getName(), tag);
+			}
+		}
+		return tagsByName;
+	}
+
+	static long extractTagId(URI tagLocation) {
+		try {
+			String idString = TAG_URI_TEMPLATE.match(tagLocation.toASCIIString()).get(
+					"id");
+			return Long.valueOf(idString);
+		}
+		catch (RuntimeException ex) {
+			throw new IllegalArgumentException("The tag '" + tagLocation + "' is invalid");
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+/**
+ * Published when a tag has been inserted or updated.
+ */
+class TagSavedEvent {
+
+	private final long id;
+
+	private final boolean created;
+
+	TagSavedEvent(long id, boolean created) {
+		this.id = id;
+		this.created = created;
+	}
+
+	long getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns whether the tag was inserted rather than updated.
+	 */
+	boolean isCreated() {
+		return this.created;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+/**
+ * A read-only view of a tag's own columns. Repositories create summaries directly from
+ * the rows they read, so no entity is managed, snapshotted for dirty checking or
+ * proxied on the way to a representation model.
+ */
+public class TagSummary {
+
+	private final long id;
+
+	private final long version;
+
+	private final String name;
+
+	public TagSummary(long id, long version, String name) {
+		this.id = id;
+		this.version = version;
+		this.name = name;
+	}
+
+	public long getId() {
+		return this.id;
+	}
+
+	public long getVersion() {
+		return this.version;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+}
@@ -17,16 +17,33 @@
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import uk.ac.ebi.atlas.restfulnotesspringhateoas.NoteRepresentationModelAssembler.NoteModel;
 import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler.TagModel;
@@ -36,21 +53,95 @@ import uk.ac.ebi.atlas.restfulnotesspringhateoas.TagRepresentationModelAssembler
 class TagsController {
 
 	private final TagRepository repository;
+
+	private final NoteRepository noteRepository;
+
+	private final TagPostings tagPostings;
+
+	private final EmbeddedTags embeddedTags;
+
+	private final RepresentationCache representationCache;
 	
 	private final TagRepresentationModelAssembler tagAssembler;
 	
 	private final NoteRepresentationModelAssembler noteAssembler;
 
-	TagsController(TagRepository repository, TagRepresentationModelAssembler tagAssembler,
-			NoteRepresentationModelAssembler noteAssembler) {
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final RestNotesProperties.Paging paging;
+
+	TagsController(TagRepository repository, NoteRepository noteRepository, TagPostings tagPostings,
+			EmbeddedTags embeddedTags, RepresentationCache representationCache,
+			TagRepresentationModelAssembler tagAssembler, NoteRepresentationModelAssembler noteAssembler,
+			ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+			RestNotesProperties properties) {
 		this.repository = repository;
+		this.noteRepository = noteRepository;
+		this.tagPostings = tagPostings;
+		this.embeddedTags = embeddedTags;
+		this.representationCache = representationCache;
 		this.tagAssembler = tagAssembler;
 		this.noteAssembler = noteAssembler;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.paging = properties.getPaging();
 	}
 
 	@RequestMapping(method = RequestMethod.GET)
-	CollectionModel<TagModel> all() {
-		return this.tagAssembler.toCollectionModel(this.repository.findAll());
+	CollectionModel<TagModel> all(@RequestParam(name = "after", required = false) Long after,
+			@RequestParam(name = "before", required = false) Long before,
+			@RequestParam(name = "size", required = false) Integer size,
+			@RequestParam(name = "name", required = false) List<String> names) {
+		if (names != null) {
+			CollectionModel<TagModel> tags = this.tagAssembler
+				.toCollectionModel(this.repository.findSummariesByNameInOrderByIdAsc(names));
+			tags.add(linkTo(methodOn(TagsController.class).all(null, null, null, names)).withSelfRel());
+			return tags;
+		}
+		int pageSize = this.paging.pageSize(size);
+		Limit limit = Limit.of(pageSize + 1);
+		KeysetSlice<TagSummary> slice = (before != null)
+				? KeysetSlice.before(this.repository.findSummariesByIdLessThanOrderByIdDesc(before, limit), pageSize)
+				: KeysetSlice.after(this.repository.findSummariesByIdGreaterThanOrderByIdAsc(
+						(after != null) ? after : Long.MIN_VALUE, limit), pageSize, after != null);
+
+		CollectionModel<TagModel> tags = this.tagAssembler.toCollectionModel(slice.getContent());
+		tags.add(linkTo(methodOn(TagsController.class).all(after, before, size, null)).withSelfRel());
+		if (slice.hasNext()) {
+			tags.add(linkTo(methodOn(TagsController.class).all(slice.getLast().getId(), null, size, null))
+					.withRel(IanaLinkRelations.NEXT));
+		}
+		if (slice.hasPrevious()) {
+			tags.add(linkTo(methodOn(TagsController.class).all(null, slice.getFirst().getId(), size, null))
+					.withRel(IanaLinkRelations.PREV));
+		}
+		return tags;
+	}
+
+	@RequestMapping(value = "/top", method = RequestMethod.GET)
+	CollectionModel<TagModel> top(@RequestParam(name = "limit", required = false) Integer limit) {
+		List<TagPostings.TagCount> top = this.tagPostings.top(this.paging.pageSize(limit));
+		List<Long> tagIds = new ArrayList<>(top.size());
+		for (TagPostings.TagCount tagCount: top) {
+			tagIds.add(tagCount.getTagId());
+		}
+		Map<Long, TagSummary> tagsById = new HashMap<>();
+		for (TagSummary tag: this.repository.findSummariesByIdIn(tagIds)) {
+			tagsById.put(tag.getId(), tag);
+		}
+		List<TagSummary> tags = new ArrayList<>(tagIds.size());
+		for (Long tagId: tagIds) {
+			TagSummary tag = tagsById.get(tagId);
+			if (tag != null) {
+				tags.add(tag);
+			}
+		}
+
+		CollectionModel<TagModel> topTags = this.tagAssembler.toCollectionModel(tags);
+		topTags.add(linkTo(methodOn(TagsController.class).top(limit)).withSelfRel());
+		return topTags;
 	}
 
 	@ResponseStatus(HttpStatus.CREATED)
@@ -59,7 +150,12 @@ class TagsController {
 		Tag tag = new Tag();
 		tag.setName(tagInput.getName());
 
-		this.repository.save(tag);
+		try {
+			this.repository.save(tag);
+		}
+		catch (DataIntegrityViolationException ex) {
+			throw new TagNameInUseException();
+		}
 
 		HttpHeaders httpHeaders = new HttpHeaders();
 		httpHeaders.setLocation(linkTo(TagsController.class).slash(tag.getId()).toUri());
@@ -67,19 +163,87 @@ class TagsController {
 		return httpHeaders;
 	}
 
+	/**
+	 * Creates a tag with the given name unless one already exists, so that clients can
+	 * obtain the URI of a tag from its name in a single idempotent request.
+	 */
+	@RequestMapping(value = "/by-name/{name}", method = RequestMethod.PUT)
+	ResponseEntity<Void> putByName(@PathVariable("name") String name) {
+		if (name.isBlank()) {
+			throw new IllegalArgumentException("The name must not be blank");
+		}
+		Tag tag = this.repository.findByName(name);
+		boolean created = false;
+		if (tag == null) {
+			tag = new Tag();
+			tag.setName(name);
+			try {
+				this.repository.save(tag);
+				created = true;
+			}
+			catch (DataIntegrityViolationException ex) {
+				// Another request created the tag after it was looked up
+				tag = this.repository.findByName(name);
+				if (tag == null) {
+					throw ex;
+				}
+			}
+		}
+		URI location = linkTo(TagsController.class).slash(tag.getId()).toUri();
+		return created ? ResponseEntity.created(location).build() : ResponseEntity.noContent().location(location).build();
+	}
+
+	/**
+	 * Deletes a tag and its associations with notes using two set-based statements, so
+	 * that the cost does not depend on loading the notes that carry the tag.
+	 */
 	@RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
 	void delete(@PathVariable("id") long id) {
-		this.repository.deleteById(id);
+		this.transactionTemplate.executeWithoutResult((status) -> {
+			this.repository.deleteNoteTagsByTagId(id);
+			if (this.repository.deleteTagById(id) > 0) {
+				this.eventPublisher.publishEvent(new TagDeletedEvent(id));
+			}
+		});
+		this.representationCache.evict(RepresentationCache.Type.TAG, id);
 	}
 
 	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
-	TagModel tag(@PathVariable("id") long id) {
-		return this.tagAssembler.toModel(findTagById(id));
+	ResponseEntity<?> tag(@PathVariable("id") long id, WebRequest request) {
+		TagSummary tag = this.repository.findSummaryById(id);
+		if (tag == null) {
+			throw new ResourceDoesNotExistException();
+		}
+		// The note count is not part of the tag's version, so it is part of the entity tag
+		// and of the state that a cached representation must have been rendered with
+		String eTag = EntityTags.of(tag.getVersion(), this.tagPostings.count(id));
+		if (request.checkNotModified(eTag)) {
+			return null;
+		}
+		if (!RepresentationCache.isAcceptable(request)) {
+			return ResponseEntity.ok().eTag(eTag).body(this.tagAssembler.toModel(tag));
+		}
+		RepresentationCache.Representation representation = this.representationCache
+			.get(RepresentationCache.Type.TAG, id, eTag);
+		if (representation == null) {
+			representation = this.representationCache.put(RepresentationCache.Type.TAG, id, eTag,
+					this.tagAssembler.toModel(tag));
+		}
+		return representation.toResponse(eTag, request);
 	}
 
 	@RequestMapping(value = "/{id}/notes", method = RequestMethod.GET)
-	CollectionModel<NoteModel> tagNotes(@PathVariable("id") long id) {
-		return this.noteAssembler.toCollectionModel(findTagById(id).getNotes());
+	CollectionModel<NoteModel> tagNotes(@PathVariable("id") long id,
+			@RequestParam(name = "fields", required = false) List<String> fields,
+			@RequestParam(name = "embed", required = false) List<String> embed) {
+		NoteProjection projection = NoteProjection.of(fields, embed);
+		List<NoteSummary> notes = projection.includesBody() ? this.noteRepository.findSummariesByTagId(id)
+				: this.noteRepository.findHeadersByTagId(id);
+		if (notes.isEmpty() && !this.repository.existsById(id)) {
+			throw new ResourceDoesNotExistException();
+		}
+		return this.noteAssembler.toCollectionModel(projection.apply(notes),
+				projection.embedsTags() ? this.embeddedTags.of(notes) : null);
 	}
 
 	private Tag findTagById(long id) {
@@ -91,12 +255,21 @@ class TagsController {
 	}
 
 	@RequestMapping(value = "/{id}", method = RequestMethod.PATCH)
-	@ResponseStatus(HttpStatus.NO_CONTENT)
-	void updateTag(@PathVariable("id") long id, @RequestBody TagPatchInput tagInput) {
+	ResponseEntity<Void> updateTag(@PathVariable("id") long id, @RequestBody TagPatchInput tagInput,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 		Tag tag = findTagById(id);
+		EntityTags.checkIfMatch(ifMatch, tag.getVersion());
 		if (tagInput.getName() != null) {
 			tag.setName(tagInput.getName());
 		}
-		this.repository.save(tag);
+		try {
+			tag = this.repository.save(tag);
+		}
+		catch (DataIntegrityViolationException ex) {
+			throw new TagNameInUseException();
+		}
+		this.representationCache.evict(RepresentationCache.Type.TAG, id);
+		String eTag = EntityTags.of(tag.getVersion(), this.tagPostings.count(id));
+		return ResponseEntity.noContent().eTag(eTag).build();
 	}
 }
@@ -0,0 +1,25 @@
+-- The sequences start at the allocation size so that their first value reserves the ids
+-- from 1 up to it, like every later value. Hibernate's pooled optimizer treats a first
+-- value of 1 differently, calling the sequence again and handing out every id up to the
+-- second value, which could clash with ids reserved by another caller in between.
+create sequence note_seq start with ${id-allocation-size} increment by ${id-allocation-size};
+
+create sequence tag_seq start with ${id-allocation-size} increment by ${id-allocation-size};
+
+create table note (
+	id bigint not null primary key,
+	version bigint not null,
+	title varchar(255),
+	body varchar(255)
+);
+
+create table tag (
+	id bigint not null primary key,
+	version bigint not null,
+	name varchar(255)
+);
+
+create table note_tags (
+	notes_id bigint not null references note (id),
+	tags_id bigint not null references tag (id)
+);
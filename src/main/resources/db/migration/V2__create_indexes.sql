@@ -0,0 +1,5 @@
+create index note_tags_notes_id on note_tags (notes_id, tags_id);
+
+create index note_tags_tags_id on note_tags (tags_id, notes_id);
+
+create index tag_name on tag (name);
@@ -0,0 +1,19 @@
+-- Tags that share a name are merged into the oldest of them. Their notes are moved to
+-- the oldest tag first, skipping notes that already have it.
+insert into note_tags (notes_id, tags_id)
+select distinct nt.notes_id, oldest.id
+from note_tags nt
+join tag t on t.id = nt.tags_id
+join (select name, min(id) as id from tag group by name) oldest on oldest.name = t.name
+where t.id <> oldest.id
+and not exists (select 1 from note_tags e where e.notes_id = nt.notes_id and e.tags_id = oldest.id);
+
+delete from note_tags
+where tags_id in (select t.id from tag t where t.id > (select min(o.id) from tag o where o.name = t.name));
+
+delete from tag
+where id > (select min(o.id) from tag o where o.name = tag.name);
+
+drop index tag_name;
+
+create unique index tag_name on tag (name);
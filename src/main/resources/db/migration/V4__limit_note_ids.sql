@@ -0,0 +1,2 @@
+-- Note ids are kept as ints in the tag postings, so the sequence must not go past them
+alter sequence note_seq maxvalue 2147483647;
@@ -16,7 +16,9 @@
 
 package uk.ac.ebi.atlas.restfulnotesspringhateoas;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import jakarta.servlet.RequestDispatcher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,31 +26,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.restdocs.constraints.ConstraintDescriptions;
 import org.springframework.restdocs.payload.FieldDescriptor;
 import org.springframework.restdocs.payload.JsonFieldType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.epages.restdocs.apispec.MockMvcRestDocumentationWrapper.document;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
 import static org.springframework.restdocs.headers.HeaderDocumentation.responseHeaders;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.delete;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.get;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.patch;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.post;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.put;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessRequest;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
@@ -56,8 +69,14 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWit
 import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
 import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.queryParameters;
 import static org.springframework.restdocs.snippet.Attributes.key;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -70,6 +89,9 @@ public class ApiDocumentation {
 	@Autowired
 	private TagRepository tagRepository;
 
+	@Autowired
+	private ChangeLog changeLog;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -86,6 +108,8 @@ public class ApiDocumentation {
 						preprocessRequest(prettyPrint()),
 						preprocessResponse(prettyPrint())))
 				.build();
+		this.noteRepository.deleteAll();
+		this.tagRepository.deleteAll();
 	}
 
 	@Test
@@ -126,7 +150,8 @@ public class ApiDocumentation {
 			.andDo(document("{method-name}",
 				links(
 					linkWithRel("notes").description("The <<resources_notes,Notes resource>>"),
-					linkWithRel("tags").description("The <<resources_tags,Tags resource>>")),
+					linkWithRel("tags").description("The <<resources_tags,Tags resource>>"),
+					linkWithRel("changes").description("The <<resources_changes,Changes resource>>")),
 				responseFields(
 					subsectionWithPath("_links").description("<<resources_index_access_links,Links>> to other resources"))));
 	}
@@ -144,7 +169,118 @@ public class ApiDocumentation {
 			.andExpect(status().isOk())
 			.andDo(document("{method-name}",
 				responseFields(
-					subsectionWithPath("_embedded.notes").description("An array of <<resources_note, Note resources>>"))));
+					subsectionWithPath("_embedded.notes").description("An array of <<resources_note, Note resources>>"),
+					subsectionWithPath("_links").description("<<resources_notes_list_links,Links>> to other pages of notes"))));
+	}
+
+	@Test
+	void notesListPagingExample() throws Exception {
+		this.noteRepository.deleteAll();
+
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+		createNote("Hypertext Application Language (HAL)", "https://github.com/mikekelly/hal_specification");
+		createNote("Application-Level Profile Semantics (ALPS)", "https://github.com/alps-io/spec");
+
+		String nextLocation = JsonPath.parse(this.mockMvc
+			.perform(get("/notes").param("size", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(2)))
+			.andExpect(jsonPath("_links.next.href", is(notNullValue())))
+			.andReturn().getResponse().getContentAsString()).read("_links.next.href");
+
+		this.mockMvc
+			.perform(get(nextLocation))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(1)))
+			.andExpect(jsonPath("_links.prev.href", is(notNullValue())))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("size").description("The maximum number of notes in the page").optional(),
+					parameterWithName("after").description("Only notes created after the note with this id are returned").optional(),
+					parameterWithName("before").description("Only notes created before the note with this id are returned").optional()),
+				links(
+					linkWithRel("self").description("This page of notes"),
+					linkWithRel("next").description("The next page of notes").optional(),
+					linkWithRel("prev").description("The previous page of notes").optional())));
+	}
+
+	@Test
+	void notesListByTagsExample() throws Exception {
+		this.noteRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Tag hypermedia = createTag("Hypermedia");
+		Tag draft = createTag("Draft");
+
+		createNote("Hypertext Application Language (HAL)", "https://github.com/mikekelly/hal_specification", rest, hypermedia);
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+		createNote("Application-Level Profile Semantics (ALPS)", "https://github.com/alps-io/spec", rest, hypermedia, draft);
+
+		this.mockMvc
+			.perform(get("/notes")
+				.param("tags", rest.getId() + "," + hypermedia.getId())
+				.param("match", "all")
+				.param("exclude", Long.toString(draft.getId())))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(1)))
+			.andExpect(jsonPath("_embedded.notes[0].title", is("Hypertext Application Language (HAL)")))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("tags").description("The ids of the tags to match").optional(),
+					parameterWithName("match").description("How notes must match `tags`: `all` (the default), `any` or `none`").optional(),
+					parameterWithName("exclude").description("The ids of tags whose notes are left out").optional())));
+	}
+
+	@Test
+	void notesListFieldsAndEmbedExample() throws Exception {
+		this.noteRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Tag hypermedia = createTag("Hypermedia");
+
+		createNote("Hypertext Application Language (HAL)", "https://github.com/mikekelly/hal_specification", rest, hypermedia);
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+
+		this.mockMvc
+			.perform(get("/notes").param("fields", "title").param("embed", "tags"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(2)))
+			.andExpect(jsonPath("_embedded.notes[0].title", is("Hypertext Application Language (HAL)")))
+			.andExpect(jsonPath("_embedded.notes[0].body").doesNotExist())
+			.andExpect(jsonPath("_embedded.notes[0]._embedded.tags", hasSize(2)))
+			.andExpect(jsonPath("_embedded.notes[1]._embedded.tags[0].name", is("REST")))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("fields").description("The fields of each note to include: `title`, `body` or both (the default)").optional(),
+					parameterWithName("embed").description("Relations to embed in each note: `tags`").optional())));
+	}
+
+	@Test
+	void notesSearchExample() throws Exception {
+		this.noteRepository.deleteAll();
+
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+		createNote("Hypertext Application Language (HAL)", "A format for linking REST resources");
+		createNote("Application-Level Profile Semantics (ALPS)", "https://github.com/alps-io/spec");
+
+		this.mockMvc
+			.perform(get("/notes/search").param("q", "rest").param("size", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(1)))
+			.andExpect(jsonPath("_embedded.notes[0].title", is("REST maturity model")))
+			.andExpect(jsonPath("_links.next.href", is(notNullValue())))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("q").description("The search query, matched against the title and body of each note"),
+					parameterWithName("size").description("The maximum number of notes in the page").optional(),
+					parameterWithName("page").description("The zero-based number of the page").optional()),
+				links(
+					linkWithRel("self").description("This page of results"),
+					linkWithRel("next").description("The next page of results").optional(),
+					linkWithRel("prev").description("The previous page of results").optional()),
+				responseFields(
+					subsectionWithPath("_embedded.notes").description("An array of <<resources_note, Note resources>>, best match first"),
+					subsectionWithPath("_links").description("<<resources_notes_search_links,Links>> to other pages of results"))));
 	}
 
 	@Test
@@ -176,7 +312,215 @@ public class ApiDocumentation {
 				requestFields(
 					fields.withPath("title").description("The title of the note"),
 					fields.withPath("body").description("The body of the note"),
-					fields.withPath("tags").description("An array of tag resource URIs"))));
+					fields.withPath("tags").description("An array of tag resource URIs"),
+					fields.withPath("tagNames")
+						.description("An array of tag names, as an alternative to tag resource URIs")
+						.type(JsonFieldType.ARRAY)
+						.optional())));
+	}
+
+	@Test
+	void notesCreateWithTagNamesExample() throws Exception {
+		Tag rest = createTag("REST");
+		createTag("Hypermedia");
+
+		Map<String, Object> note = new HashMap<>();
+		note.put("title", "REST maturity model");
+		note.put("body", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+		note.put("tagNames", Arrays.asList("REST", "Hypermedia"));
+
+		String noteLocation = this.mockMvc
+			.perform(post("/notes")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(note)))
+			.andExpect(status().isCreated())
+			.andDo(document("{method-name}"))
+			.andReturn().getResponse().getHeader("Location");
+
+		this.mockMvc
+			.perform(get(noteLocation + "/tags"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(2)));
+
+		note.put("tagNames", Arrays.asList(rest.getName(), "HTTP"));
+
+		this.mockMvc
+			.perform(post("/notes")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(note)))
+			.andExpect(status().isBadRequest())
+			.andExpect(status().reason("The tag named 'HTTP' does not exist"));
+	}
+
+	@Test
+	void notesBatchCreateExample() throws Exception {
+		Map<String, Object> note = new HashMap<>();
+		note.put("title", "REST maturity model");
+		note.put("body", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+
+		Map<String, Object> untitledNote = new HashMap<>();
+		untitledNote.put("title", " ");
+		untitledNote.put("body", "https://github.com/mikekelly/hal_specification");
+
+		this.mockMvc
+			.perform(post("/notes/batch")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(Arrays.asList(note, untitledNote))))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("created", is(1)))
+			.andExpect(jsonPath("failed", is(1)))
+			.andExpect(jsonPath("items[0].location", is(notNullValue())))
+			.andExpect(jsonPath("items[1].error", is(notNullValue())))
+			.andDo(document("{method-name}",
+				requestFields(
+					fieldWithPath("[].title").description("The title of the note"),
+					fieldWithPath("[].body").description("The body of the note"),
+					fieldWithPath("[].tags").description("An array of tag resource URIs").type(JsonFieldType.ARRAY).optional()),
+				responseFields(
+					fieldWithPath("created").description("The number of notes that were created"),
+					fieldWithPath("failed").description("The number of notes that were rejected"),
+					fieldWithPath("items").description("The outcome for each note, in the order they were sent"),
+					fieldWithPath("items[].location").description("The URI of the created note").type(JsonFieldType.STRING).optional(),
+					fieldWithPath("items[].error").description("Why the note was rejected").type(JsonFieldType.STRING).optional())));
+	}
+
+	@Test
+	void notesBatchCreateWithMalformedNote() throws Exception {
+		Map<String, Object> note = new HashMap<>();
+		note.put("title", "REST maturity model");
+		note.put("body", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+
+		String batch = this.objectMapper.writeValueAsString(note) + "\nnull\n{\"title\": ";
+
+		this.mockMvc
+			.perform(post("/notes/batch")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(batch))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("created", is(1)))
+			.andExpect(jsonPath("failed", is(2)))
+			.andExpect(jsonPath("items[0].location", is(notNullValue())))
+			.andExpect(jsonPath("items[1].error", is("The note must not be null")))
+			.andExpect(jsonPath("items[2].error", startsWith("The note at index 2 is malformed")));
+	}
+
+	@Test
+	void notesBulkUpdateExample() throws Exception {
+		this.noteRepository.deleteAll();
+		this.tagRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Note maturityModel = createNote("REST maturity model",
+				"https://martinfowler.com/articles/richardsonMaturityModel.html");
+		Note hal = createNote("Hypertext Application Language (HAL)",
+				"https://github.com/mikekelly/hal_specification");
+
+		Map<String, Object> noteUpdate = new HashMap<>();
+		noteUpdate.put("tags", Collections.singletonList("http://localhost:8080/tags/" + rest.getId()));
+
+		this.mockMvc
+			.perform(patch("/notes")
+				.param("ids", maturityModel.getId() + "," + hal.getId() + ",0")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(noteUpdate)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("requested", is(3)))
+			.andExpect(jsonPath("affected", is(2)))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("ids").description("The comma-separated ids of the notes to update")),
+				requestFields(
+					fieldWithPath("title").description("The title of the notes").type(JsonFieldType.STRING).optional(),
+					fieldWithPath("body").description("The body of the notes").type(JsonFieldType.STRING).optional(),
+					fieldWithPath("tags").description("An array of tag resource URIs that replace the tags of the notes")
+						.type(JsonFieldType.ARRAY).optional()),
+				responseFields(
+					fieldWithPath("requested").description("The number of distinct note ids in the request"),
+					fieldWithPath("affected").description("The number of notes that existed and were updated"))));
+
+		this.mockMvc
+			.perform(get("/tags/{id}/notes", rest.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(2)));
+	}
+
+	@Test
+	void notesBulkDeleteExample() throws Exception {
+		this.noteRepository.deleteAll();
+		this.tagRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Note maturityModel = createNote("REST maturity model",
+				"https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+		Note hal = createNote("Hypertext Application Language (HAL)",
+				"https://github.com/mikekelly/hal_specification", rest);
+
+		this.mockMvc
+			.perform(get("/notes/{id}", hal.getId()))
+			.andExpect(status().isOk());
+
+		this.mockMvc
+			.perform(delete("/notes")
+				.param("ids", maturityModel.getId() + "," + hal.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("requested", is(2)))
+			.andExpect(jsonPath("affected", is(2)))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("ids").description("The comma-separated ids of the notes to delete")),
+				responseFields(
+					fieldWithPath("requested").description("The number of distinct note ids in the request"),
+					fieldWithPath("affected").description("The number of notes that existed and were deleted"))));
+
+		this.mockMvc
+			.perform(get("/notes/{id}", hal.getId()))
+			.andExpect(status().isNotFound());
+
+		this.mockMvc
+			.perform(get("/tags/{id}/notes", rest.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes").doesNotExist());
+	}
+
+	@Test
+	void notesExportExample() throws Exception {
+		this.noteRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Tag hal = createTag("HAL");
+		Note maturityModel = createNote("REST maturity model",
+				"https://martinfowler.com/articles/richardsonMaturityModel.html", rest, hal);
+		Note untagged = createNote("Hypertext Application Language (HAL)",
+				"https://github.com/mikekelly/hal_specification");
+
+		MvcResult export = this.mockMvc
+			.perform(get("/notes/export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		String body = this.mockMvc
+			.perform(asyncDispatch(export))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+			.andDo(document("{method-name}"))
+			.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(2);
+		assertExported(lines[0], maturityModel, rest.getId(), hal.getId());
+		assertExported(lines[1], untagged);
+	}
+
+	private void assertExported(String line, Note note, Long... tagIds) throws Exception {
+		JsonNode exported = this.objectMapper.readTree(line);
+		assertThat(exported.get("id").asLong()).isEqualTo(note.getId());
+		assertThat(exported.get("title").asText()).isEqualTo(note.getTitle());
+		assertThat(exported.get("body").asText()).isEqualTo(note.getBody());
+		List<Long> exportedTagIds = new ArrayList<>();
+		for (JsonNode tagId: exported.get("tags")) {
+			exportedTagIds.add(tagId.asLong());
+		}
+		assertThat(exportedTagIds).containsExactlyInAnyOrder(tagIds);
 	}
 
 	@Test
@@ -221,6 +565,87 @@ public class ApiDocumentation {
 
 	}
 
+	@Test
+	void noteConditionalRequestsExample() throws Exception {
+		Map<String, Object> note = new HashMap<>();
+		note.put("title", "REST maturity model");
+		note.put("body", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+
+		String noteLocation = this.mockMvc
+			.perform(post("/notes")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(note)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getHeader("Location");
+
+		String eTag = this.mockMvc
+			.perform(get(noteLocation))
+			.andExpect(status().isOk())
+			.andExpect(header().exists("ETag"))
+			.andReturn().getResponse().getHeader("ETag");
+
+		this.mockMvc
+			.perform(get(noteLocation).header("If-None-Match", eTag))
+			.andExpect(status().isNotModified())
+			.andDo(document("{method-name}-not-modified",
+				requestHeaders(
+					headerWithName("If-None-Match").description("The `ETag` of the representation the client already has"))));
+
+		Map<String, Object> noteUpdate = new HashMap<>();
+		noteUpdate.put("title", "Richardson maturity model");
+
+		this.mockMvc
+			.perform(patch(noteLocation)
+				.header("If-Match", eTag)
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(noteUpdate)))
+			.andExpect(status().isNoContent())
+			.andExpect(header().exists("ETag"));
+
+		this.mockMvc
+			.perform(patch(noteLocation)
+				.header("If-Match", eTag)
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(noteUpdate)))
+			.andExpect(status().isPreconditionFailed())
+			.andDo(document("{method-name}-precondition-failed",
+				requestHeaders(
+					headerWithName("If-Match").description("The `ETag` of the representation the update is based on"))));
+	}
+
+	@Test
+	void tagConditionalRequestsExample() throws Exception {
+		Tag rest = createTag("REST");
+
+		String eTag = this.mockMvc
+			.perform(get("/tags/{id}", rest.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(0)))
+			.andReturn().getResponse().getHeader("ETag");
+
+		this.mockMvc
+			.perform(get("/tags/{id}", rest.getId()).header("If-None-Match", eTag))
+			.andExpect(status().isNotModified());
+
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+
+		String taggedETag = this.mockMvc
+			.perform(get("/tags/{id}", rest.getId()).header("If-None-Match", eTag))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(1)))
+			.andReturn().getResponse().getHeader("ETag");
+
+		Map<String, Object> tagUpdate = new HashMap<>();
+		tagUpdate.put("name", "RESTful");
+
+		this.mockMvc
+			.perform(patch("/tags/{id}", rest.getId())
+				.header("If-Match", taggedETag)
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(tagUpdate)))
+			.andExpect(status().isNoContent());
+	}
+
 	@Test
 	void tagsListExample() throws Exception {
 		this.noteRepository.deleteAll();
@@ -235,7 +660,81 @@ public class ApiDocumentation {
 			.andExpect(status().isOk())
 			.andDo(document("{method-name}",
 				responseFields(
-					subsectionWithPath("_embedded.tags").description("An array of <<resources_tag,Tag resources>>"))));
+					subsectionWithPath("_embedded.tags").description("An array of <<resources_tag,Tag resources>>"),
+					subsectionWithPath("_links").description("<<resources_tags_list_links,Links>> to other pages of tags"))));
+	}
+
+	@Test
+	void tagsTopExample() throws Exception {
+		this.noteRepository.deleteAll();
+		this.tagRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Tag hypermedia = createTag("Hypermedia");
+		createTag("HTTP");
+
+		createNote("Hypertext Application Language (HAL)", "https://github.com/mikekelly/hal_specification", rest, hypermedia);
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+
+		this.mockMvc
+			.perform(get("/tags/top").param("limit", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(2)))
+			.andExpect(jsonPath("_embedded.tags[0].name", is("REST")))
+			.andExpect(jsonPath("_embedded.tags[0].noteCount", is(2)))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("limit").description("The maximum number of tags to return").optional()),
+				responseFields(
+					subsectionWithPath("_embedded.tags").description("An array of <<resources_tag,Tag resources>>, most used first"),
+					subsectionWithPath("_links").description("Links to other resources"))));
+	}
+
+	@Test
+	void changesExample() throws Exception {
+		long since = this.changeLog.getLastSequence();
+
+		Tag rest = createTag("REST");
+		createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html", rest);
+
+		this.mockMvc
+			.perform(get("/changes").param("since", Long.toString(since)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.changes", hasSize(2)))
+			.andExpect(jsonPath("_embedded.changes[0].resource", is("tag")))
+			.andExpect(jsonPath("_embedded.changes[0].type", is("created")))
+			.andExpect(jsonPath("_embedded.changes[1].resource", is("note")))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("since").description("The sequence number of the last change the client has seen").optional(),
+					parameterWithName("size").description("The maximum number of changes in the page").optional()),
+				links(
+					linkWithRel("self").description("This page of changes"),
+					linkWithRel("next").description("The changes made after this page")),
+				responseFields(
+					subsectionWithPath("_embedded.changes").description("An array of changes, oldest first"),
+					fieldWithPath("_embedded.changes[].sequence").description("The sequence number of the change"),
+					fieldWithPath("_embedded.changes[].resource").description("The kind of resource that changed, `note` or `tag`"),
+					fieldWithPath("_embedded.changes[].type").description("How it changed: `created`, `updated` or `deleted`"),
+					subsectionWithPath("_embedded.changes[]._links").description("A link to the resource that changed"),
+					subsectionWithPath("_links").description("Links to other pages of changes"))));
+	}
+
+	@Test
+	void changesFromAnotherLogHaveExpired() throws Exception {
+		long last = this.changeLog.getLastSequence();
+
+		this.mockMvc
+			.perform(get("/changes").param("since", Long.toString(last + 1)))
+			.andExpect(status().isGone());
+		this.mockMvc
+			.perform(get("/changes").param("since", "0"))
+			.andExpect(status().isGone());
+		this.mockMvc
+			.perform(get("/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.header("Last-Event-ID", Long.toString(last + 1)))
+			.andExpect(status().isGone());
 	}
 
 	@Test
@@ -307,7 +806,8 @@ public class ApiDocumentation {
 						.type(JsonFieldType.STRING)
 						.optional(),
 					fields.withPath("tags")
-						.description("An array of tag resource URIs"))));
+						.description("An array of tag resource URIs")
+						.optional())));
 	}
 
 	@Test
@@ -332,6 +832,7 @@ public class ApiDocumentation {
 					linkWithRel("tagged-notes").description("The notes that have this tag")),
 				responseFields(
 					fieldWithPath("name").description("The name of the tag"),
+					fieldWithPath("noteCount").description("The number of notes that have the tag"),
 					subsectionWithPath("_links").description("<<resources_tag_links,Links>> to other resources"))));
 	}
 
@@ -362,18 +863,103 @@ public class ApiDocumentation {
 					fields.withPath("name").description("The name of the tag"))));
 	}
 
-	private void createNote(String title, String body) {
+	@Test
+	void tagsFindByNameExample() throws Exception {
+		createTag("REST");
+		createTag("Hypermedia");
+		createTag("HTTP");
+
+		this.mockMvc
+			.perform(get("/tags").param("name", "REST", "HTTP", "HAL"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(2)))
+			.andExpect(jsonPath("_embedded.tags[0].name", is("REST")))
+			.andExpect(jsonPath("_embedded.tags[1].name", is("HTTP")))
+			.andDo(document("{method-name}",
+				queryParameters(
+					parameterWithName("name").description("The name of a tag to find. May be repeated"))));
+	}
+
+	@Test
+	void tagPutByNameExample() throws Exception {
+		String tagLocation = this.mockMvc
+			.perform(put("/tags/by-name/{name}", "REST"))
+			.andExpect(status().isCreated())
+			.andExpect(header().exists("Location"))
+			.andDo(document("{method-name}"))
+			.andReturn().getResponse().getHeader("Location");
+
+		this.mockMvc
+			.perform(put("/tags/by-name/{name}", "REST"))
+			.andExpect(status().isNoContent())
+			.andExpect(header().string("Location", tagLocation))
+			.andDo(document("{method-name}-existing"));
+
+		Map<String, String> tag = new HashMap<>();
+		tag.put("name", "REST");
+
+		this.mockMvc
+			.perform(post("/tags")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(tag)))
+			.andExpect(status().isConflict());
+	}
+
+	@Test
+	void tagDeleteExample() throws Exception {
+		this.noteRepository.deleteAll();
+		this.tagRepository.deleteAll();
+
+		Tag rest = createTag("REST");
+		Tag hypermedia = createTag("Hypermedia");
+		Note note = createNote("Hypertext Application Language (HAL)",
+				"https://github.com/mikekelly/hal_specification", rest, hypermedia);
+
+		this.mockMvc
+			.perform(get("/tags/{id}", rest.getId()))
+			.andExpect(status().isOk());
+
+		this.mockMvc
+			.perform(delete("/tags/{id}", rest.getId()))
+			.andExpect(status().isOk())
+			.andDo(document("{method-name}"));
+
+		this.mockMvc
+			.perform(get("/tags/{id}", rest.getId()))
+			.andExpect(status().isNotFound());
+
+		this.mockMvc
+			.perform(get("/notes/{id}/tags", note.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(1)));
+
+		this.mockMvc
+			.perform(get("/tags/top"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(1)));
+	}
+
+	private Note createNote(String title, String body) {
+		Note note = new Note();
+		note.setTitle(title);
+		note.setBody(body);
+
+		return this.noteRepository.save(note);
+	}
+
+	private Note createNote(String title, String body, Tag... tags) {
 		Note note = new Note();
 		note.setTitle(title);
 		note.setBody(body);
+		note.setTags(Arrays.asList(tags));
 
-		this.noteRepository.save(note);
+		return this.noteRepository.save(note);
 	}
 
-	private void createTag(String name) {
+	private Tag createTag(String name) {
 		Tag tag = new Tag();
 		tag.setName(name);
-		this.tagRepository.save(tag);
+		return this.tagRepository.save(tag);
 	}
 
 	private static class ConstrainedFields {
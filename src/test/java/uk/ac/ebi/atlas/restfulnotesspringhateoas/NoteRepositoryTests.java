@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class NoteRepositoryTests {
+
+	@Autowired
+	private NoteRepository noteRepository;
+
+	private Note first;
+
+	private Note second;
+
+	@BeforeEach
+	void setUp() {
+		this.noteRepository.deleteAll();
+		this.first = createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html");
+		this.second = createNote("Hypertext Application Language (HAL)", "https://github.com/mikekelly/hal_specification");
+	}
+
+	@Test
+	void findSummaryById() {
+		assertSummary(this.noteRepository.findSummaryById(this.first.getId()), this.first);
+	}
+
+	@Test
+	void findSummariesByIdIn() {
+		List<NoteSummary> summaries = this.noteRepository
+			.findSummariesByIdIn(List.of(this.first.getId(), this.second.getId()));
+
+		assertThat(summaries).hasSize(2);
+		for (NoteSummary summary: summaries) {
+			assertSummary(summary, (summary.getId() == this.first.getId()) ? this.first : this.second);
+		}
+	}
+
+	@Test
+	void findSummariesByIdGreaterThanOrderByIdAsc() {
+		List<NoteSummary> summaries = this.noteRepository.findSummariesByIdGreaterThanOrderByIdAsc(0, Limit.of(10));
+
+		assertThat(summaries).hasSize(2);
+		assertSummary(summaries.get(0), this.first);
+		assertSummary(summaries.get(1), this.second);
+	}
+
+	@Test
+	void findSummariesByIdLessThanOrderByIdDesc() {
+		List<NoteSummary> summaries = this.noteRepository.findSummariesByIdLessThanOrderByIdDesc(Long.MAX_VALUE,
+				Limit.of(10));
+
+		assertThat(summaries).hasSize(2);
+		assertSummary(summaries.get(0), this.second);
+		assertSummary(summaries.get(1), this.first);
+	}
+
+	private static void assertSummary(NoteSummary summary, Note note) {
+		assertThat(summary).isNotNull();
+		assertThat(summary.getId()).isEqualTo(note.getId());
+		assertThat(summary.getVersion()).isEqualTo(note.getVersion());
+		assertThat(summary.getTitle()).isEqualTo(note.getTitle());
+		assertThat(summary.getBody()).isEqualTo(note.getBody());
+	}
+
+	private Note createNote(String title, String body) {
+		Note note = new Note();
+		note.setTitle(title);
+		note.setBody(body);
+		return this.noteRepository.save(note);
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = { "restnotes.write-behind.enabled=true", "restnotes.write-behind.capacity=4",
+		"restnotes.batch.chunk-size=3" })
+@AutoConfigureMockMvc
+class NoteWriteBehindTests {
+
+	private static final long JOURNALED_NOTE_ID = 1000000;
+
+	private static final int JOURNALED_NOTES = 10;
+
+	@TempDir
+	static Path journalDirectory;
+
+	static Path journaledSegment;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void journal(DynamicPropertyRegistry registry) throws IOException {
+		// More notes than the queue's capacity, followed by a line that was only partly
+		// written before the restart
+		Path journal = Files.createDirectories(journalDirectory.resolve("journal"));
+		StringBuilder notes = new StringBuilder();
+		for (int i = 0; i < JOURNALED_NOTES; i++) {
+			notes.append("{\"id\":" + (JOURNALED_NOTE_ID + i)
+					+ ",\"title\":\"Journaled before a restart\",\"body\":null,\"tags\":[]}\n");
+		}
+		notes.append("{\"id\":10000");
+		journaledSegment = journal.resolve("0000000000000000001.journal");
+		Files.writeString(journaledSegment, notes);
+		registry.add("restnotes.write-behind.journal", journal::toString);
+	}
+
+	@Test
+	void createdNoteIsAcceptedAndWrittenInTheBackground() throws Exception {
+		MvcResult result = this.mockMvc
+			.perform(post("/notes")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(Map.of("title", "REST maturity model"))))
+			.andExpect(status().isAccepted())
+			.andReturn();
+		String noteLocation = result.getResponse().getHeader(HttpHeaders.LOCATION);
+		assertThat(result.getResponse().getHeader(HttpHeaders.LINK))
+			.isEqualTo("<" + noteLocation + "/status>;rel=\"status\"");
+
+		awaitWritten(noteLocation);
+		this.mockMvc.perform(get(noteLocation))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("title", is("REST maturity model")));
+	}
+
+	@Test
+	void invalidNoteIsRejectedBeforeItIsJournaled() throws Exception {
+		this.mockMvc
+			.perform(post("/notes")
+				.contentType(MediaTypes.HAL_JSON)
+				.content(this.objectMapper.writeValueAsString(Map.of("body", "No title"))))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void journaledNoteIsWrittenOnStartup() throws Exception {
+		String noteLocation = "http://localhost/notes/" + JOURNALED_NOTE_ID;
+		awaitWritten(noteLocation);
+		this.mockMvc.perform(get(noteLocation))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("title", is("Journaled before a restart")));
+	}
+
+	@Test
+	void journalWithMoreNotesThanCapacityIsReplayedAndDeleted() throws Exception {
+		for (int i = 0; i < JOURNALED_NOTES; i++) {
+			awaitWritten("http://localhost/notes/" + (JOURNALED_NOTE_ID + i));
+		}
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (Files.exists(journaledSegment)) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(50);
+		}
+	}
+
+	private void awaitWritten(String noteLocation) throws Exception {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (true) {
+			String status = this.mockMvc.perform(get(noteLocation + "/status"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+			if (status.contains("\"written\"")) {
+				return;
+			}
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(50);
+		}
+	}
+
+}
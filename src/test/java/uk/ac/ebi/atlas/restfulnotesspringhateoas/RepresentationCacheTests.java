@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "restnotes.representation-cache.compression-threshold=300B")
+@AutoConfigureMockMvc
+class RepresentationCacheTests {
+
+	@Autowired
+	private NoteRepository noteRepository;
+
+	@Autowired
+	private TagRepository tagRepository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void patchedNoteIsNotServedStale() throws Exception {
+		Note note = createNote("REST maturity model", "", new ArrayList<>());
+		this.mockMvc.perform(get("/notes/" + note.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("title", is("REST maturity model")));
+
+		this.mockMvc.perform(patch("/notes/" + note.getId())
+				.contentType(MediaTypes.HAL_JSON)
+				.content("{\"title\": \"Richardson maturity model\"}"))
+			.andExpect(status().isNoContent());
+
+		this.mockMvc.perform(get("/notes/" + note.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("title", is("Richardson maturity model")));
+	}
+
+	@Test
+	void patchedTagIsNotServedStale() throws Exception {
+		Tag tag = createTag("REST");
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("name", is("REST")));
+
+		this.mockMvc.perform(patch("/tags/" + tag.getId())
+				.contentType(MediaTypes.HAL_JSON)
+				.content("{\"name\": \"RESTful\"}"))
+			.andExpect(status().isNoContent());
+
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("name", is("RESTful")));
+	}
+
+	@Test
+	void tagWithChangedNoteCountIsNotServedStale() throws Exception {
+		Tag tag = createTag("Hypermedia");
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(0)));
+
+		Note note = createNote("HAL", "", new ArrayList<>(List.of(tag)));
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(1)));
+
+		this.mockMvc.perform(patch("/notes/" + note.getId())
+				.contentType(MediaTypes.HAL_JSON)
+				.content("{\"tags\": []}"))
+			.andExpect(status().isNoContent());
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(0)));
+	}
+
+	@Test
+	void cachedNoteIsTheSameAsTheUncachedRendering() throws Exception {
+		Note note = createNote("REST maturity model", "https://martinfowler.com/articles/richardsonMaturityModel.html",
+				new ArrayList<>(List.of(createTag("Maturity"))));
+		// Asking for every field explicitly bypasses the cache
+		String uncached = this.mockMvc.perform(get("/notes/" + note.getId()).param("fields", "title", "body"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+
+		for (int i = 0; i < 2; i++) {
+			this.mockMvc.perform(get("/notes/" + note.getId()))
+				.andExpect(status().isOk())
+				.andExpect(content().json(uncached, true));
+		}
+	}
+
+	@Test
+	void largeRepresentationIsCompressedWhenTheClientAcceptsGzip() throws Exception {
+		Note note = createNote("Large", "x".repeat(255), new ArrayList<>());
+		byte[] identity = this.mockMvc.perform(get("/notes/" + note.getId()))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andReturn().getResponse().getContentAsByteArray();
+
+		MvcResult result = this.mockMvc.perform(get("/notes/" + note.getId())
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn();
+
+		assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(gunzip(result.getResponse().getContentAsByteArray())).isEqualTo(identity);
+	}
+
+	@Test
+	void largeRepresentationVariesByAcceptEncodingWhenTheClientDoesNotAcceptGzip() throws Exception {
+		Note note = createNote("Large", "x".repeat(255), new ArrayList<>());
+
+		MvcResult result = this.mockMvc.perform(get("/notes/" + note.getId())
+				.header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andReturn();
+
+		assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+	}
+
+	@Test
+	void largeRepresentationIsNotCompressedWhenGzipHasAQualityOfZero() throws Exception {
+		Note note = createNote("Large", "x".repeat(255), new ArrayList<>());
+
+		for (String acceptEncoding: List.of("gzip;q=0", "GZIP; q=0.0, deflate", "gzip;q=0, *", "*;q=0")) {
+			this.mockMvc.perform(get("/notes/" + note.getId())
+					.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+		}
+	}
+
+	@Test
+	void largeRepresentationIsCompressedWhenAnyEncodingIsAccepted() throws Exception {
+		Note note = createNote("Large", "x".repeat(255), new ArrayList<>());
+
+		for (String acceptEncoding: List.of("*", "deflate, *;q=0.5", "identity;q=0.5, GZip;q=0.1")) {
+			this.mockMvc.perform(get("/notes/" + note.getId())
+					.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+		}
+	}
+
+	@Test
+	void smallRepresentationIsNeverCompressed() throws Exception {
+		Note note = createNote("Small", "", new ArrayList<>());
+
+		MvcResult result = this.mockMvc.perform(get("/notes/" + note.getId())
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andReturn();
+
+		assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).doesNotContain(HttpHeaders.ACCEPT_ENCODING);
+	}
+
+	private static byte[] gunzip(byte[] bytes) throws IOException {
+		try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return input.readAllBytes();
+		}
+	}
+
+	private Tag createTag(String name) {
+		Tag tag = new Tag();
+		tag.setName(name);
+		return this.tagRepository.save(tag);
+	}
+
+	private Note createNote(String title, String body, List<Tag> tags) {
+		Note note = new Note();
+		note.setTitle(title);
+		note.setBody(body);
+		note.setTags(tags);
+		return this.noteRepository.save(note);
+	}
+
+}
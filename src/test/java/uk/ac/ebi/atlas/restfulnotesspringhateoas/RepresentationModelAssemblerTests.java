@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Links;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class RepresentationModelAssemblerTests {
+
+	@BeforeEach
+	void startRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setServerName("notes.example.com");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void endRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void noteLinksMatchControllerMappings() {
+		NoteSummary note = new NoteSummary(42, 0, "REST maturity model", null);
+
+		Links links = new NoteRepresentationModelAssembler(new SimpleMeterRegistry()).toModel(note).getLinks();
+
+		assertThat(links.toString()).isEqualTo(Links.of(
+				linkTo(methodOn(NotesController.class).note(42, null, null, null)).withSelfRel().expand(),
+				linkTo(methodOn(NotesController.class).noteTags(42)).withRel("note-tags")).toString());
+	}
+
+	@Test
+	void tagLinksMatchControllerMappings() {
+		TagSummary tag = new TagSummary(7, 0, "REST");
+
+		Links links = new TagRepresentationModelAssembler(new SimpleMeterRegistry(), mock(TagPostings.class)).toModel(tag).getLinks();
+
+		assertThat(links.toString()).isEqualTo(Links.of(
+				linkTo(methodOn(TagsController.class).tag(7, null)).withSelfRel(),
+				linkTo(methodOn(TagsController.class).tagNotes(7, null, null)).withRel("tagged-notes").expand()).toString());
+	}
+
+	@Test
+	void baseUriFollowsTheCurrentRequest() {
+		NoteSummary note = new NoteSummary(1, 0, "REST maturity model", null);
+		new NoteRepresentationModelAssembler(new SimpleMeterRegistry()).toModel(note);
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setServerName("other.example.com");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		assertThat(new NoteRepresentationModelAssembler(new SimpleMeterRegistry()).toModel(note).getRequiredLink("self").getHref())
+			.isEqualTo("http://other.example.com/notes/1");
+	}
+
+}
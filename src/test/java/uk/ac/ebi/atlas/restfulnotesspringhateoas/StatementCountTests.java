@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.ac.ebi.atlas.restfulnotesspringhateoas;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class StatementCountTests {
+
+	@Autowired
+	private NoteRepository noteRepository;
+
+	@Autowired
+	private TagRepository tagRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void noteTagsIsReadWithASingleStatement() throws Exception {
+		List<Tag> tags = Arrays.asList(createTag("REST"), createTag("HAL"), createTag("HTTP"));
+		Note note = createNote("REST maturity model", tags);
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/notes/" + note.getId() + "/tags"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.tags", hasSize(3)));
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void tagNotesIsReadWithASingleStatement() throws Exception {
+		Tag tag = createTag("Hypermedia");
+		for (int i = 0; i < 3; i++) {
+			createNote("Note " + i, new ArrayList<>(List.of(tag)));
+		}
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/tags/" + tag.getId() + "/notes"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("_embedded.notes", hasSize(3)));
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cachedNoteIsReadWithASingleStatement() throws Exception {
+		Note note = createNote("REST maturity model", new ArrayList<>());
+		String body = this.mockMvc.perform(get("/notes/" + note.getId()))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/notes/" + note.getId()))
+			.andExpect(status().isOk())
+			.andExpect(content().string(body));
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void repeatedTagReadRunsNoStatements() throws Exception {
+		Tag tag = createTag("Caching");
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk());
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk());
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(0);
+	}
+
+	@Test
+	void tagIsReadAgainAfterItIsUpdated() throws Exception {
+		Tag tag = createTag("Invalidation");
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk());
+		this.mockMvc.perform(patch("/tags/" + tag.getId())
+				.contentType(MediaTypes.HAL_JSON)
+				.content("{\"name\": \"Cache invalidation\"}"))
+			.andExpect(status().isNoContent());
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("name", is("Cache invalidation")));
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void tagIsNotReadAgainAfterANoteIsTagged() throws Exception {
+		// The note count comes from TagPostings rather than the database, so a change to a
+		// note's tags changes the representation without invalidating the cached tag
+		Tag tag = createTag("Counting");
+		Note note = createNote("Counted", new ArrayList<>());
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(0)));
+		this.mockMvc.perform(patch("/notes/" + note.getId())
+				.contentType(MediaTypes.HAL_JSON)
+				.content("{\"tags\": [\"http://localhost/tags/" + tag.getId() + "\"]}"))
+			.andExpect(status().isNoContent());
+
+		this.statistics.clear();
+		this.mockMvc.perform(get("/tags/" + tag.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("noteCount", is(1)));
+
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(0);
+	}
+
+	private Tag createTag(String name) {
+		Tag tag = new Tag();
+		tag.setName(name);
+		return this.tagRepository.save(tag);
+	}
+
+	private Note createNote(String title, List<Tag> tags) {
+		Note note = new Note();
+		note.setTitle(title);
+		note.setTags(tags);
+		return this.noteRepository.save(note);
+	}
+
+}